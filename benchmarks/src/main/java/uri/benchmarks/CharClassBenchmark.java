@@ -0,0 +1,80 @@
+package uri.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import uri.UriParserFactory;
+
+/**
+ * Validating whole URIs with the scanner's character class table against
+ * the same grammar written as a regular expression, matched with
+ * {@link String#matches} (compiling the pattern on every call) and with a
+ * precompiled {@link Pattern}. The scanner runs scalar here, see
+ * {@link LongComponentBenchmark} for its vector backend.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Duri.scalar=true")
+@State(Scope.Thread)
+public class CharClassBenchmark {
+
+	// possessive, so that long components neither backtrack nor recurse deeply
+	private static final String PCHAR = "(?:[A-Za-z0-9.]++|%[0-9A-Fa-f]{2})";
+	static final String GRAMMAR = "[A-Za-z][A-Za-z0-9]*+://(?:(?:" + PCHAR + "|:)*+@)?" + PCHAR + "*+(?:/(?:" + PCHAR
+			+ "|/)*+)?(?:\\?(?:" + PCHAR + "|[&=])*+)?";
+	private static final Pattern PATTERN = Pattern.compile(GRAMMAR);
+
+	@Param({ "SHORT", "LONG_QUERY", "INVALID" })
+	public Corpus corpus;
+
+	private String[] inputs;
+	private int next;
+
+	@Setup
+	public void setup() {
+		inputs = corpus.generate();
+		for (String input : inputs) {
+			// the regex does not know that a ':' in the host needs an '@'
+			boolean expected = UriParserFactory.stateless().parse(input) != null;
+			if (PATTERN.matcher(input).matches() != expected && input.indexOf(':', input.indexOf("//")) < 0) {
+				throw new IllegalStateException("regex and scanner disagree on " + input);
+			}
+		}
+	}
+
+	private String nextInput() {
+		String input = inputs[next];
+		next = (next + 1) & (Corpus.SIZE - 1);
+		return input;
+	}
+
+	@Benchmark
+	public boolean stringMatches() {
+		return nextInput().matches(GRAMMAR);
+	}
+
+	@Benchmark
+	public boolean compiledPattern() {
+		return PATTERN.matcher(nextInput()).matches();
+	}
+
+	@Benchmark
+	public boolean table() {
+		return UriParserFactory.stateless().parse(nextInput()) != null;
+	}
+
+}
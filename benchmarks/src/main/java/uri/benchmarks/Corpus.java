@@ -0,0 +1,161 @@
+package uri.benchmarks;
+
+import java.util.Random;
+
+/**
+ * Deterministic input sets for the benchmarks. Every corpus has
+ * {@link #SIZE} entries, a power of two so benchmarks can cycle through it
+ * with a mask.
+ */
+public enum Corpus {
+
+	/** Typical short links with a host, a few path segments and sometimes a query. */
+	SHORT {
+		@Override
+		String next(Random random) {
+			StringBuilder uri = new StringBuilder("https://");
+			if (random.nextInt(8) == 0) {
+				uri.append("user").append(random.nextInt(100)).append(":pw@");
+			}
+			uri.append("www.example").append(random.nextInt(1000)).append(".com");
+			appendPath(uri, random, 1 + random.nextInt(3));
+			if (random.nextBoolean()) {
+				uri.append("?id=").append(random.nextInt(100000));
+			}
+			return uri.toString();
+		}
+	},
+
+	/** Tracking links with query strings of one to four kilobytes. */
+	LONG_QUERY {
+		@Override
+		String next(Random random) {
+			StringBuilder uri = new StringBuilder("https://tracker.example.com");
+			appendPath(uri, random, 2);
+			uri.append('?');
+			int length = 1024 + random.nextInt(3072);
+			while (uri.length() < length) {
+				uri.append("param").append(random.nextInt(50)).append('=');
+				appendWord(uri, random, 4 + random.nextInt(24));
+				if (random.nextInt(4) == 0) {
+					uri.append("%20");
+					appendWord(uri, random, 4);
+				}
+				uri.append('&');
+			}
+			uri.append("end=1");
+			return uri.toString();
+		}
+	},
+
+	/** Hosts that are IPv4 addresses, some with leading zeros. */
+	IPV4 {
+		@Override
+		String next(Random random) {
+			StringBuilder uri = new StringBuilder("http://");
+			for (int i = 0; i < 4; i++) {
+				if (i > 0) {
+					uri.append('.');
+				}
+				int octet = random.nextInt(256);
+				if (random.nextInt(8) == 0) {
+					uri.append(octet < 10 ? "00" : octet < 100 ? "0" : "");
+				}
+				uri.append(octet);
+			}
+			appendPath(uri, random, random.nextInt(3));
+			return uri.toString();
+		}
+	},
+
+	/** Inputs that violate the grammar at the start, in the middle or at the very end. */
+	INVALID {
+		@Override
+		String next(Random random) {
+			String valid = SHORT.next(random);
+			switch (random.nextInt(5)) {
+			case 0:
+				return "ht-tp" + valid.substring(5);
+			case 1:
+				return valid.replace("www.", "www:");
+			case 2:
+				return valid + "/pa th";
+			case 3:
+				return valid + "%G1";
+			default:
+				return LONG_QUERY.next(random) + "#fragment";
+			}
+		}
+	},
+
+	/**
+	 * {@link #SHORT} links as typed or pasted: some with an upper-case scheme
+	 * or host, lower-case hex digits or needlessly encoded characters.
+	 */
+	DENORMALIZED {
+		@Override
+		String next(Random random) {
+			String uri = SHORT.next(random);
+			switch (random.nextInt(4)) {
+			case 0:
+				return "HTTPS" + uri.substring(5).replace("www.example", "WWW.Example");
+			case 1:
+				return uri.replace(".com", ".com/caf%c3%a9");
+			case 2:
+				return uri.replace(".com/", ".com/%7e%61").replace("www.", "%77ww.");
+			default:
+				return uri;
+			}
+		}
+	},
+
+	/**
+	 * Tracking links whose one to four kilobyte query is mostly short words
+	 * between "pct-encoded" triplets, as left by nested URL encoding.
+	 */
+	PERCENT_QUERY {
+		@Override
+		String next(Random random) {
+			StringBuilder uri = new StringBuilder("https://tracker.example.com");
+			appendPath(uri, random, 2);
+			uri.append("?u=");
+			int length = 1024 + random.nextInt(3072);
+			while (uri.length() < length) {
+				appendWord(uri, random, 1 + random.nextInt(6));
+				uri.append(random.nextBoolean() ? "%2F" : "%3D");
+			}
+			return uri.toString();
+		}
+	};
+
+	public static final int SIZE = 1024;
+
+	abstract String next(Random random);
+
+	/**
+	 * @return {@link #SIZE} inputs, identical on every call
+	 */
+	public String[] generate() {
+		Random random = new Random(0x5EED + ordinal());
+		String[] inputs = new String[SIZE];
+		for (int i = 0; i < SIZE; i++) {
+			inputs[i] = next(random);
+		}
+		return inputs;
+	}
+
+	static void appendPath(StringBuilder uri, Random random, int segments) {
+		for (int i = 0; i < segments; i++) {
+			uri.append('/');
+			appendWord(uri, random, 3 + random.nextInt(8));
+		}
+	}
+
+	static void appendWord(StringBuilder uri, Random random, int length) {
+		for (int i = 0; i < length; i++) {
+			int c = random.nextInt(36);
+			uri.append((char) (c < 26 ? 'a' + c : '0' + c - 26));
+		}
+	}
+
+}
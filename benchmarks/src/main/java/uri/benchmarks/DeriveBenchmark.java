@@ -0,0 +1,80 @@
+package uri.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import uri.ParsedUri;
+import uri.UriParserFactory;
+
+/**
+ * Cost of deriving a URI from a parsed one, as a proxy does when it rewrites
+ * the host or adds a parameter: the {@code with} methods against building the
+ * new text and parsing it again.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DeriveBenchmark {
+
+	@Param({ "SHORT", "LONG_QUERY", "IPV4" })
+	public Corpus corpus;
+
+	private ParsedUri[] uris;
+	private int next;
+
+	@Setup
+	public void setup() {
+		String[] inputs = corpus.generate();
+		uris = new ParsedUri[inputs.length];
+		for (int i = 0; i < inputs.length; i++) {
+			uris[i] = UriParserFactory.stateless().parse(inputs[i]);
+		}
+	}
+
+	private ParsedUri nextUri() {
+		ParsedUri uri = uris[next];
+		next = (next + 1) & (Corpus.SIZE - 1);
+		return uri;
+	}
+
+	@Benchmark
+	public ParsedUri withHost() {
+		return nextUri().withHost("backend.internal");
+	}
+
+	@Benchmark
+	public ParsedUri reparseHost() {
+		ParsedUri uri = nextUri();
+		String userInfo = uri.getUserInfo();
+		String query = uri.getQuery();
+		return UriParserFactory.stateless()
+				.parse(uri.getScheme() + "://" + (userInfo == null ? "" : userInfo + "@") + "backend.internal"
+						+ (uri.getPath().isEmpty() ? "" : "/" + uri.getPath()) + (query == null ? "" : "?" + query));
+	}
+
+	@Benchmark
+	public ParsedUri withParameter() {
+		return nextUri().withParameter("trace", "1");
+	}
+
+	@Benchmark
+	public ParsedUri reparseParameter() {
+		ParsedUri uri = nextUri();
+		return UriParserFactory.stateless().parse(uri + (uri.getQuery() == null ? "?" : "&") + "trace=1");
+	}
+
+}
@@ -0,0 +1,113 @@
+package uri.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import uri.Host;
+import uri.IPv4Address;
+import uri.ParsedUri;
+import uri.SegmentCursor;
+import uri.Uri;
+import uri.UriParserFactory;
+
+/**
+ * Cost of each {@link Uri} getter on already parsed URIs, i.e. what repeated
+ * reads of the same component cost a caller such as a request router.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GetterBenchmark {
+
+	@Param({ "SHORT", "LONG_QUERY", "IPV4" })
+	public Corpus corpus;
+
+	private ParsedUri[] uris;
+	private int next;
+
+	@Setup
+	public void setup() {
+		String[] inputs = corpus.generate();
+		uris = new ParsedUri[inputs.length];
+		for (int i = 0; i < inputs.length; i++) {
+			uris[i] = UriParserFactory.stateless().parse(inputs[i]);
+		}
+	}
+
+	private ParsedUri nextUri() {
+		ParsedUri uri = uris[next];
+		next = (next + 1) & (Corpus.SIZE - 1);
+		return uri;
+	}
+
+	@Benchmark
+	public String getScheme() {
+		return nextUri().getScheme();
+	}
+
+	@Benchmark
+	public String getUserInfo() {
+		return nextUri().getUserInfo();
+	}
+
+	@Benchmark
+	public Host getHost() {
+		return nextUri().getHost();
+	}
+
+	@Benchmark
+	public String getHostString() {
+		return nextUri().getHost().toString();
+	}
+
+	@Benchmark
+	public byte[] getOctets() {
+		Host host = nextUri().getHost();
+		return host instanceof IPv4Address ? ((IPv4Address) host).getOctets() : null;
+	}
+
+	@Benchmark
+	public String getPath() {
+		return nextUri().getPath();
+	}
+
+	@Benchmark
+	public String getQuery() {
+		return nextUri().getQuery();
+	}
+
+	/** How callers matched path segments before {@link SegmentCursor}. */
+	@Benchmark
+	public int splitPath() {
+		int length = 0;
+		for (String segment : nextUri().getPath().split("/")) {
+			length += segment.length();
+		}
+		return length;
+	}
+
+	@Benchmark
+	public int segmentCursor() {
+		SegmentCursor cursor = nextUri().getSegments();
+		int length = 0;
+		while (cursor.next()) {
+			length += cursor.getEnd() - cursor.getStart();
+		}
+		return length;
+	}
+
+}
@@ -0,0 +1,62 @@
+package uri.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import uri.Uri;
+import uri.UriParserFactory;
+
+/**
+ * Parsing with and without the Vector API backend of the scanner. Both
+ * benchmarks run the same code; they differ only in whether the forked JVM
+ * resolves {@code jdk.incubator.vector} (which needs JDK 17 and a jar built
+ * with the {@code vector} profile) or is told to stay scalar.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Thread)
+public class LongComponentBenchmark {
+
+	@Param({ "LONG_QUERY", "PERCENT_QUERY", "SHORT" })
+	public Corpus corpus;
+
+	private String[] inputs;
+	private int next;
+
+	@Setup
+	public void setup() {
+		inputs = corpus.generate();
+	}
+
+	private String nextInput() {
+		String input = inputs[next];
+		next = (next + 1) & (Corpus.SIZE - 1);
+		return input;
+	}
+
+	@Benchmark
+	@Fork(value = 1, jvmArgsAppend = "-Duri.scalar=true")
+	public Uri scalar() {
+		return UriParserFactory.stateless().parse(nextInput());
+	}
+
+	@Benchmark
+	@Fork(value = 1, jvmArgsAppend = { "--add-modules", "jdk.incubator.vector" })
+	public Uri vector() {
+		return UriParserFactory.stateless().parse(nextInput());
+	}
+
+}
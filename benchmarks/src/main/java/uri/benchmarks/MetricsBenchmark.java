@@ -0,0 +1,66 @@
+package uri.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import uri.ParsedUri;
+import uri.StatelessUriParser;
+import uri.UriParserFactory;
+
+/**
+ * Cost of the metrics: the shared parser against one that records into
+ * {@link uri.ParserMetrics}, from several threads so that the counters are
+ * contended.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Thread)
+public class MetricsBenchmark {
+
+	// shared by all threads, like a parser in a server
+	private static final StatelessUriParser MEASURED = UriParserFactory.stateless(UriParserFactory.createMetrics());
+
+	@Param({ "SHORT", "LONG_QUERY", "INVALID" })
+	public Corpus corpus;
+
+	private String[] inputs;
+	private int next;
+
+	@Setup
+	public void setup() {
+		inputs = corpus.generate();
+	}
+
+	private String nextInput() {
+		String input = inputs[next];
+		next = (next + 1) & (Corpus.SIZE - 1);
+		return input;
+	}
+
+	@Benchmark
+	public ParsedUri plain() {
+		return UriParserFactory.stateless().parse(nextInput());
+	}
+
+	@Benchmark
+	public ParsedUri measured() {
+		return MEASURED.parse(nextInput());
+	}
+
+}
@@ -0,0 +1,100 @@
+package uri.benchmarks;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import uri.ParsedUri;
+import uri.StatelessUriParser;
+import uri.UriParserFactory;
+
+/**
+ * Cost of turning inputs into normalized dedup keys: the normalizing parse
+ * against a plain parse followed by the String passes callers used before.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class NormalizeBenchmark {
+
+	private static final Pattern TRIPLET = Pattern.compile("%([0-9A-Fa-f]{2})");
+
+	@Param({ "SHORT", "DENORMALIZED", "IPV4" })
+	public Corpus corpus;
+
+	private final StatelessUriParser parser = UriParserFactory.stateless();
+	private String[] inputs;
+	private int next;
+
+	@Setup
+	public void setup() {
+		inputs = corpus.generate();
+	}
+
+	private String nextInput() {
+		String input = inputs[next];
+		next = (next + 1) & (Corpus.SIZE - 1);
+		return input;
+	}
+
+	@Benchmark
+	public ParsedUri parse() {
+		return parser.parse(nextInput());
+	}
+
+	@Benchmark
+	public long parseNormalized() {
+		return parser.parseNormalized(nextInput()).getFingerprint();
+	}
+
+	@Benchmark
+	public String parseThenStringPasses() {
+		ParsedUri uri = parser.parse(nextInput());
+		StringBuilder key = new StringBuilder();
+		key.append(uri.getScheme().toLowerCase(Locale.ROOT)).append("://");
+		if (uri.getUserInfo() != null) {
+			key.append(normalizeTriplets(uri.getUserInfo())).append('@');
+		}
+		key.append(normalizeTriplets(uri.getHost().toString()).toLowerCase(Locale.ROOT));
+		if (!uri.getPath().isEmpty()) {
+			key.append('/').append(normalizeTriplets(uri.getPath()));
+		}
+		if (uri.getQuery() != null) {
+			key.append('?').append(normalizeTriplets(uri.getQuery()));
+		}
+		return key.toString();
+	}
+
+	private static String normalizeTriplets(String component) {
+		if (component.indexOf('%') < 0) {
+			return component;
+		}
+		Matcher matcher = TRIPLET.matcher(component);
+		StringBuffer result = new StringBuffer(component.length());
+		while (matcher.find()) {
+			char c = (char) Integer.parseInt(matcher.group(1), 16);
+			boolean unreserved = Character.isLetterOrDigit(c) && c < 128 || c == '.';
+			matcher.appendReplacement(result,
+					unreserved ? String.valueOf(c) : "%" + matcher.group(1).toUpperCase(Locale.ROOT));
+		}
+		matcher.appendTail(result);
+		return result.toString();
+	}
+
+}
@@ -0,0 +1,84 @@
+package uri.benchmarks;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import uri.StatelessUriParser;
+import uri.Uri;
+import uri.UriParserFactory;
+
+/**
+ * Scaling of bulk parsing with the number of worker threads. Each operation
+ * is one URI, so the throughput of the {@code threads} values side by side is
+ * the scaling curve; {@code threads = 1} is the sequential baseline.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ParallelBenchmark {
+	private static final int COPIES = 64;
+	private static final int COUNT = Corpus.SIZE * COPIES;
+
+	@Param({ "1", "2", "4", "8" })
+	public int threads;
+
+	@Param({ "SHORT", "LONG_QUERY" })
+	public Corpus corpus;
+
+	private StatelessUriParser parser;
+	private ForkJoinPool pool;
+	private String[] inputs;
+	private Uri[] results;
+	private String text;
+
+	@Setup
+	public void setup() {
+		parser = UriParserFactory.stateless();
+		pool = new ForkJoinPool(threads);
+		String[] corpusInputs = corpus.generate();
+		inputs = new String[COUNT];
+		StringBuilder lines = new StringBuilder();
+		for (int i = 0; i < COUNT; i++) {
+			// distinct String instances, as if every line had been read separately
+			inputs[i] = new String(corpusInputs[i % Corpus.SIZE]);
+			lines.append(inputs[i]).append('\n');
+		}
+		results = new Uri[COUNT];
+		text = lines.toString();
+	}
+
+	@TearDown
+	public void tearDown() {
+		pool.shutdown();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(COUNT)
+	public int parseArray() {
+		return parser.parseAll(inputs, results, pool);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(COUNT)
+	public Object[] parseLines() {
+		return pool.submit(() -> parser.parseLines(text).parallel().toArray()).join();
+	}
+
+}
@@ -0,0 +1,103 @@
+package uri.benchmarks;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import uri.CachingUriParser;
+import uri.Host;
+import uri.ParseResult;
+import uri.StatelessUriParser;
+import uri.Uri;
+import uri.UriParserFactory;
+
+/**
+ * Parse throughput over each {@link Corpus}, one input per operation.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ParseBenchmark {
+
+	@Param({ "SHORT", "LONG_QUERY", "IPV4", "INVALID" })
+	public Corpus corpus;
+
+	private String[] inputs;
+	private byte[][] bytes;
+	private int next;
+	private StatelessUriParser parser;
+	private CachingUriParser cache;
+
+	@Setup
+	public void setup() {
+		inputs = corpus.generate();
+		bytes = new byte[inputs.length][];
+		for (int i = 0; i < inputs.length; i++) {
+			bytes[i] = inputs[i].getBytes(StandardCharsets.US_ASCII);
+		}
+		parser = UriParserFactory.stateless();
+		// large enough to hold the whole corpus, so this measures hits
+		cache = UriParserFactory.caching(2 * Corpus.SIZE);
+	}
+
+	private String nextInput() {
+		String input = inputs[next];
+		next = (next + 1) & (Corpus.SIZE - 1);
+		return input;
+	}
+
+	@Benchmark
+	public Uri factoryParse() {
+		return UriParserFactory.create(nextInput()).parse();
+	}
+
+	@Benchmark
+	public Uri statelessParse() {
+		return parser.parse(nextInput());
+	}
+
+	/** Also reports the reason for each rejected input, see the INVALID corpus. */
+	@Benchmark
+	public ParseResult statelessTryParse() {
+		return parser.tryParse(nextInput());
+	}
+
+	@Benchmark
+	public Uri cachingParse() {
+		return cache.parse(nextInput());
+	}
+
+	/**
+	 * Parsing request-line bytes without decoding them to a String first.
+	 */
+	@Benchmark
+	public Uri statelessParseBytes() {
+		byte[] input = bytes[next];
+		next = (next + 1) & (Corpus.SIZE - 1);
+		return parser.parseBytes(input, 0, input.length);
+	}
+
+	/**
+	 * The log pipeline case: parse and keep only the host.
+	 */
+	@Benchmark
+	public Host parseHost() {
+		Uri uri = parser.parse(nextInput());
+		return uri == null ? null : uri.getHost();
+	}
+
+}
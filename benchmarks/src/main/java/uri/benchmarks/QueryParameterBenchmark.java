@@ -0,0 +1,103 @@
+package uri.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import uri.ParsedUri;
+import uri.QueryCursor;
+import uri.UriParserFactory;
+
+/**
+ * Looking up one query parameter by splitting the query String, as callers
+ * did before, against the {@link QueryCursor} based lookup and the cached
+ * parameter map. The looked up name is the last parameter of LONG_QUERY and
+ * the only one of SHORT.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class QueryParameterBenchmark {
+
+	@Param({ "SHORT", "LONG_QUERY" })
+	public Corpus corpus;
+
+	private String name;
+	private ParsedUri[] uris;
+	private ParsedUri[] mapped;
+	private int next;
+
+	@Setup
+	public void setup() {
+		name = corpus == Corpus.LONG_QUERY ? "end" : "id";
+		String[] inputs = corpus.generate();
+		uris = new ParsedUri[inputs.length];
+		mapped = new ParsedUri[inputs.length];
+		for (int i = 0; i < inputs.length; i++) {
+			uris[i] = UriParserFactory.stateless().parse(inputs[i]);
+			mapped[i] = UriParserFactory.stateless().parse(inputs[i]);
+			mapped[i].getParameterMap();
+		}
+	}
+
+	private int nextIndex() {
+		int index = next;
+		next = (next + 1) & (Corpus.SIZE - 1);
+		return index;
+	}
+
+	@Benchmark
+	public String split() {
+		String query = uris[nextIndex()].getQuery();
+		if (query == null) {
+			return null;
+		}
+		for (String parameter : query.split("&")) {
+			String[] pair = parameter.split("=", 2);
+			if (pair[0].equals(name)) {
+				return pair.length > 1 ? pair[1] : "";
+			}
+		}
+		return null;
+	}
+
+	@Benchmark
+	public String getParameter() {
+		return uris[nextIndex()].getParameter(name);
+	}
+
+	@Benchmark
+	public String getParameterMapped() {
+		return mapped[nextIndex()].getParameter(name);
+	}
+
+	@Benchmark
+	public int cursor() {
+		QueryCursor cursor = uris[nextIndex()].getQueryParameters();
+		int count = 0;
+		while (cursor.next()) {
+			count += cursor.getValueEnd() - cursor.getNameStart();
+		}
+		return count;
+	}
+
+	@Benchmark
+	public List<String> getParameterMap() {
+		return mapped[nextIndex()].getParameterMap().get(name);
+	}
+
+}
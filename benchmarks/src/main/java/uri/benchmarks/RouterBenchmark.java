@@ -0,0 +1,128 @@
+package uri.benchmarks;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import uri.Uri;
+import uri.UriParserFactory;
+import uri.UriRouter;
+
+/**
+ * Routing parsed URIs against {@value #ROUTES} routes of the form
+ * {@code svcN.example.com/api/vN/resN/*}, through a {@link UriRouter} and
+ * through a linear scan that compares {@code getHost().toString()} and the
+ * segments of {@code getPath()} route by route. One in eight URIs matches no
+ * route, which makes the scan visit every route.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RouterBenchmark {
+
+	static final int ROUTES = 10_000;
+
+	private UriRouter<Integer> router;
+	private List<LinearRoute> linear;
+	private Uri[] uris;
+	private String[] inputs;
+	private int next;
+
+	@Setup
+	public void setup() {
+		Map<String, Integer> routes = new HashMap<>();
+		linear = new ArrayList<>();
+		for (int i = 0; i < ROUTES; i++) {
+			String host = "svc" + (i / 100) + ".example.com";
+			String path = "api/v" + (i / 20 % 5) + "/res" + (i % 20) + "/*";
+			routes.put(host + "/" + path, i);
+			linear.add(new LinearRoute(host, path.split("/"), i));
+		}
+		router = UriParserFactory.createRouter(routes);
+
+		Random random = new Random(42);
+		uris = new Uri[Corpus.SIZE];
+		inputs = new String[Corpus.SIZE];
+		for (int i = 0; i < uris.length; i++) {
+			int route = random.nextInt(ROUTES);
+			String resource = random.nextInt(8) == 0 ? "/missing" : "/res" + (route % 20);
+			inputs[i] = "https://svc" + (route / 100) + ".example.com/api/v" + (route / 20 % 5) + resource + "/"
+					+ random.nextInt(100000);
+			uris[i] = UriParserFactory.stateless().parse(inputs[i]);
+		}
+	}
+
+	private Uri nextUri() {
+		Uri uri = uris[next];
+		next = (next + 1) & (Corpus.SIZE - 1);
+		return uri;
+	}
+
+	@Benchmark
+	public Integer router() {
+		return router.route(nextUri());
+	}
+
+	// a URI whose getters have not been called yet, as in a request handler
+	@Benchmark
+	public Integer parseAndRoute() {
+		String input = inputs[next];
+		next = (next + 1) & (Corpus.SIZE - 1);
+		return router.route(UriParserFactory.stateless().parse(input));
+	}
+
+	@Benchmark
+	public Integer linearScan() {
+		Uri uri = nextUri();
+		String host = uri.getHost().toString();
+		String[] segments = uri.getPath().split("/");
+		for (LinearRoute route : linear) {
+			if (route.matches(host, segments)) {
+				return route.value;
+			}
+		}
+		return null;
+	}
+
+	private static final class LinearRoute {
+		final String host;
+		final String[] segments;
+		final Integer value;
+
+		LinearRoute(String host, String[] segments, Integer value) {
+			this.host = host;
+			this.segments = segments;
+			this.value = value;
+		}
+
+		boolean matches(String host, String[] segments) {
+			if (!this.host.equals(host) || this.segments.length != segments.length) {
+				return false;
+			}
+			for (int i = 0; i < segments.length; i++) {
+				if (!this.segments[i].equals("*") && !this.segments[i].equals(segments[i])) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+
+}
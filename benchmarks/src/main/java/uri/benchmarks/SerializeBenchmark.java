@@ -0,0 +1,86 @@
+package uri.benchmarks;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import uri.ParsedUri;
+import uri.UriParserFactory;
+
+/**
+ * Cost of writing parsed URIs back out, e.g. for a log line or a proxied
+ * request. The {@code writeTo} variants reuse one buffer and should not
+ * allocate at all; {@code concatenate} is what callers did with the getters.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SerializeBenchmark {
+
+	@Param({ "SHORT", "LONG_QUERY", "IPV4" })
+	public Corpus corpus;
+
+	private ParsedUri[] uris;
+	private int next;
+	private final StringBuilder chars = new StringBuilder(8192);
+	private final ByteBuffer bytes = ByteBuffer.allocate(8192);
+
+	@Setup
+	public void setup() {
+		String[] inputs = corpus.generate();
+		uris = new ParsedUri[inputs.length];
+		for (int i = 0; i < inputs.length; i++) {
+			uris[i] = UriParserFactory.stateless().parse(inputs[i]);
+		}
+	}
+
+	private ParsedUri nextUri() {
+		ParsedUri uri = uris[next];
+		next = (next + 1) & (Corpus.SIZE - 1);
+		return uri;
+	}
+
+	@Benchmark
+	public int writeToStringBuilder() throws IOException {
+		chars.setLength(0);
+		nextUri().writeTo(chars);
+		return chars.length();
+	}
+
+	@Benchmark
+	public int writeToByteBuffer() {
+		bytes.clear();
+		nextUri().writeTo(bytes);
+		return bytes.position();
+	}
+
+	@Benchmark
+	public String concatenate() {
+		ParsedUri uri = nextUri();
+		String userInfo = uri.getUserInfo();
+		String query = uri.getQuery();
+		return uri.getScheme() + "://" + (userInfo == null ? "" : userInfo + "@") + uri.getHost()
+				+ (uri.getPath().isEmpty() ? "" : "/" + uri.getPath()) + (query == null ? "" : "?" + query);
+	}
+
+	@Benchmark
+	public String cachedToString() {
+		return nextUri().toString();
+	}
+
+}
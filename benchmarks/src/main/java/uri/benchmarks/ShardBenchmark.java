@@ -0,0 +1,80 @@
+package uri.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import uri.ParsedUri;
+import uri.StatelessUriParser;
+import uri.UriParserFactory;
+
+/**
+ * Cost of assigning each input to one of {@link #SHARDS} nodes by its host
+ * and path: the 64-bit hashes the parser keeps against hashing the
+ * component Strings after the parse.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ShardBenchmark {
+
+	private static final int SHARDS = 64;
+	private static final long SEED = 0x5EED;
+
+	@Param({ "SHORT", "LONG_QUERY", "IPV4" })
+	public Corpus corpus;
+
+	private final StatelessUriParser parser = UriParserFactory.stateless();
+	private String[] inputs;
+	private int next;
+
+	@Setup
+	public void setup() {
+		inputs = corpus.generate();
+	}
+
+	private String nextInput() {
+		String input = inputs[next];
+		next = (next + 1) & (Corpus.SIZE - 1);
+		return input;
+	}
+
+	@Benchmark
+	public ParsedUri parse() {
+		return parser.parse(nextInput());
+	}
+
+	@Benchmark
+	public int parseThenHash64() {
+		ParsedUri uri = parser.parse(nextInput());
+		return (int) ((uri.hostHash64(SEED) ^ uri.pathHash64(SEED)) >>> 1) % SHARDS;
+	}
+
+	@Benchmark
+	public int parseThenHashStrings() {
+		ParsedUri uri = parser.parse(nextInput());
+		return (int) ((fnv1a(uri.getHost().toString()) ^ fnv1a(uri.getPath())) >>> 1) % SHARDS;
+	}
+
+	private static long fnv1a(String text) {
+		long hash = 0xCBF29CE484222325L ^ SEED;
+		for (int i = 0; i < text.length(); i++) {
+			hash = (hash ^ text.charAt(i)) * 0x100000001B3L;
+		}
+		return hash;
+	}
+
+}
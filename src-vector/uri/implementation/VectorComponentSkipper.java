@@ -0,0 +1,126 @@
+package uri.implementation;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.ShortVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * The {@link ComponentSkipper} on {@code jdk.incubator.vector}. Requires Java
+ * 16 or later and {@code --add-modules jdk.incubator.vector}.
+ * <p>
+ * Characters of a String are copied into a scratch array a chunk at a time
+ * and checked {@link #CHARS} at once (16 with AVX2, 32 with AVX-512) against
+ * ALPHA / DIGIT / "." and the extra characters of the component. For a
+ * step without a stop character, the hash is advanced in one go as
+ * {@code hash * 31^CHARS + sum(c[i] * 31^(CHARS - 1 - i))}, with the sum
+ * computed on int lanes; this equals {@link String#hashCode()} since all
+ * arithmetic is modulo 2^32. The {@link Hash64} state is advanced the same
+ * way with its multiplier, on long lanes. Other {@link CharSequence}s are
+ * left to the scalar loop.
+ * <p>
+ * The first chunk holds two vectors and every further one twice as many as
+ * the one before, up to {@link #WINDOW}, so a run that stops soon copies
+ * little more than it checks, while a long one still gets large copies.
+ */
+final class VectorComponentSkipper extends ComponentSkipper {
+	private static final VectorSpecies<Short> SHORTS = ShortVector.SPECIES_PREFERRED;
+	private static final VectorSpecies<Integer> INTS = IntVector.SPECIES_PREFERRED;
+	private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+	private static final int CHARS = SHORTS.length();
+	// int vectors per short vector
+	private static final int PARTS = CHARS / INTS.length();
+	private static final int LONG_PARTS = CHARS / LONGS.length();
+	private static final int WINDOW = 32 * CHARS;
+	private static final int FIRST_CHUNK = 2 * CHARS;
+
+	// 31^(CHARS - 1 - i) for lane i of part p at index p * INTS.length() + i
+	private static final int[] POWERS = new int[CHARS];
+	// 31^CHARS
+	private static final int SHIFT;
+	// the same for Hash64.MULTIPLIER
+	private static final long[] POWERS64 = new long[CHARS];
+	private static final long SHIFT64;
+
+	static {
+		int power = 1;
+		long power64 = 1;
+		for (int i = CHARS - 1; i >= 0; i--) {
+			POWERS[i] = power;
+			POWERS64[i] = power64;
+			power *= 31;
+			power64 *= Hash64.MULTIPLIER;
+		}
+		SHIFT = power;
+		SHIFT64 = power64;
+	}
+
+	private final char[] window = new char[WINDOW];
+
+	VectorComponentSkipper() {
+		// below that, the per call overhead eats the gain
+		if (CHARS < 16 || PARTS * INTS.length() != CHARS || LONG_PARTS * LONGS.length() != CHARS) {
+			throw new UnsupportedOperationException(CHARS + " chars per vector");
+		}
+	}
+
+	@Override
+	int skip(CharSequence input, int from, int to, int component) {
+		if (!(input instanceof String)) {
+			return from;
+		}
+		String string = (String) input;
+		char extra1 = component == PATH ? '/' : '&';
+		char extra2 = component == PATH ? '/' : '=';
+		int index = from;
+		int chunk = FIRST_CHUNK;
+		while (to - index >= CHARS) {
+			int length = Math.min(chunk, (to - index) / CHARS * CHARS);
+			chunk = Math.min(2 * chunk, WINDOW);
+			string.getChars(index, index + length, window, 0);
+			for (int offset = 0; offset < length; offset += CHARS) {
+				ShortVector chars = ShortVector.fromCharArray(SHORTS, window, offset);
+				ShortVector lower = chars.or((short) 0x20);
+				VectorMask<Short> slash = chars.eq((short) extra1);
+				VectorMask<Short> valid = lower.compare(VectorOperators.GE, (short) 'a')
+						.and(lower.compare(VectorOperators.LE, (short) 'z'))
+						.or(chars.compare(VectorOperators.GE, (short) '0')
+								.and(chars.compare(VectorOperators.LE, (short) '9')))
+						.or(chars.eq((short) '.')).or(slash).or(chars.eq((short) extra2));
+				if (!valid.allTrue()) {
+					int stop = valid.not().firstTrue();
+					for (int i = 0; i < stop; i++) {
+						char c = window[offset + i];
+						hash = 31 * hash + c;
+						hash64 = hash64 * Hash64.MULTIPLIER + c;
+						if (component == PATH && c == '/') {
+							slashes++;
+						}
+					}
+					return index + offset + stop;
+				}
+				if (component == PATH) {
+					slashes += slash.trueCount();
+				}
+				int sum = 0;
+				for (int part = 0; part < PARTS; part++) {
+					IntVector ints = (IntVector) chars.convertShape(VectorOperators.S2I, INTS, part);
+					sum += ints.mul(IntVector.fromArray(INTS, POWERS, part * INTS.length()))
+							.reduceLanes(VectorOperators.ADD);
+				}
+				hash = hash * SHIFT + sum;
+				long sum64 = 0;
+				for (int part = 0; part < LONG_PARTS; part++) {
+					LongVector longs = (LongVector) chars.convertShape(VectorOperators.S2L, LONGS, part);
+					sum64 += longs.mul(LongVector.fromArray(LONGS, POWERS64, part * LONGS.length()))
+							.reduceLanes(VectorOperators.ADD);
+				}
+				hash64 = hash64 * SHIFT64 + sum64;
+			}
+			index += length;
+		}
+		return index;
+	}
+}
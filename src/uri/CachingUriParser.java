@@ -0,0 +1,48 @@
+package uri;
+
+/**
+ * A thread-safe parser for URIs according to the specification in {@link Uri}
+ * that remembers the results of recent inputs. Parsing an input that is still
+ * remembered returns the very same {@link Uri} instance (or {@code null})
+ * without scanning it again.
+ * <p>
+ * The number of remembered inputs is bounded; the least recently used ones
+ * are forgotten first.
+ */
+public interface CachingUriParser {
+
+	/**
+	 * @param uri
+	 *            the URI to parse
+	 * @return the parsed {@link Uri} instance or null when {@code uri} is
+	 *         {@code null} or not a valid {@link Uri} with regards to the
+	 *         grammar given in {@link Uri}
+	 */
+	public ParsedUri parse(CharSequence uri);
+
+	/**
+	 * @return the number of inputs currently remembered
+	 */
+	public int size();
+
+	/**
+	 * @return the maximum number of inputs remembered at once
+	 */
+	public int getMaximumSize();
+
+	/**
+	 * @return how often {@link #parse} found its input remembered
+	 */
+	public long getHitCount();
+
+	/**
+	 * @return how often {@link #parse} had to scan its input
+	 */
+	public long getMissCount();
+
+	/**
+	 * @return how many inputs were forgotten to stay within the maximum size
+	 */
+	public long getEvictionCount();
+
+}
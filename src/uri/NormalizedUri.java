@@ -0,0 +1,30 @@
+package uri;
+
+/**
+ * A {@link ParsedUri} in normal form, as returned by
+ * {@link StatelessUriParser#parseNormalized(CharSequence)}. Two inputs that
+ * only differ in the following respects give equal normalized URIs:
+ * <ul>
+ * <li>the case of the scheme and of a reg-name host,</li>
+ * <li>the case of the hex digits of "pct-encoded" triplets,</li>
+ * <li>triplets that encode an "unreserved" character instead of writing it,
+ * </li>
+ * <li>leading zeros in the octets of an IPv4address host,</li>
+ * <li>an empty userinfo, path or query written with its delimiter.</li>
+ * </ul>
+ * The getters return the normalized components, and {@link #toString()}
+ * returns the normalized text.
+ */
+public interface NormalizedUri extends ParsedUri {
+
+	/**
+	 * A 64-bit hash of {@link #toString()}, computed while normalizing, for
+	 * use as a deduplication or cache key. Equal normalized URIs have equal
+	 * fingerprints; unequal ones collide with a probability of about
+	 * 2^-64 per pair.
+	 *
+	 * @return the fingerprint of this URI
+	 */
+	public long getFingerprint();
+
+}
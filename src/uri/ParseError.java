@@ -0,0 +1,49 @@
+package uri;
+
+/**
+ * Why an input is not a valid {@link Uri}, as reported by
+ * {@link ParseResult#getError()}. Each kind names the first violation of the
+ * grammar found while reading the input from left to right.
+ */
+public enum ParseError {
+
+	/** The input is {@code null}. */
+	NULL_INPUT,
+
+	/**
+	 * The input is empty or does not start with "scheme" followed by ":", so
+	 * the offset is that of the first character that is neither.
+	 */
+	INVALID_SCHEME_CHAR,
+
+	/** The ":" after the scheme is not followed by "//". */
+	MISSING_SLASHES,
+
+	/**
+	 * A character that is not allowed in a "userinfo", that is, in the
+	 * authority before an "@".
+	 */
+	INVALID_USERINFO_CHAR,
+
+	/**
+	 * A character that is not allowed in a "host", that is, in an authority
+	 * without "@" or after it.
+	 */
+	INVALID_HOST_CHAR,
+
+	/** A second "@" in the authority. */
+	DUPLICATE_AT,
+
+	/** A ":" in an authority without "@", which makes it part of the host. */
+	COLON_IN_HOST,
+
+	/** A character that is not allowed in a "path". */
+	INVALID_PATH_CHAR,
+
+	/** A character that is not allowed in a "query". */
+	INVALID_QUERY_CHAR,
+
+	/** A "%" that is not followed by two hex digits. */
+	INVALID_PERCENT_ENCODING
+
+}
@@ -0,0 +1,32 @@
+package uri;
+
+/**
+ * The outcome of {@link StatelessUriParser#tryParse(CharSequence)}: either a
+ * parsed URI or the kind and position of the first violation of the
+ * grammar.
+ */
+public interface ParseResult {
+
+	/**
+	 * @return {@code true} if the input is a valid {@link Uri}
+	 */
+	public boolean isValid();
+
+	/**
+	 * @return the parsed URI or {@code null} if the input is not valid
+	 */
+	public ParsedUri getUri();
+
+	/**
+	 * @return why the input is not valid or {@code null} if it is
+	 */
+	public ParseError getError();
+
+	/**
+	 * @return the index of the offending character in the input, which is
+	 *         the length of the input if it ended too early, or -1 if the
+	 *         input is valid
+	 */
+	public int getErrorOffset();
+
+}
@@ -0,0 +1,254 @@
+package uri;
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A {@link Uri} as returned by the parsers of this package, with accessors
+ * beyond the ones of {@link Uri}.
+ * <p>
+ * The getters of {@link Uri} return the components as written, including any
+ * "pct-encoded" triplets. The decoded variants replace each triplet by the
+ * byte it encodes and read the resulting bytes as UTF-8; byte sequences that
+ * are not valid UTF-8 become U+FFFD. Decoding follows RFC 3986 only, so a
+ * {@code "+"} is not turned into a space. A decoded value is computed on
+ * first access and cached, and a component without a {@code "%"} is returned
+ * as the very same String as its raw getter.
+ */
+public interface ParsedUri extends Uri, Comparable<Uri> {
+
+	/**
+	 * @return the decoded {@link #getUserInfo()} or {@code null} if that is
+	 *         {@code null}
+	 */
+	public String getDecodedUserInfo();
+
+	/**
+	 * @return the decoded {@link #getPath()}, never {@code null}
+	 */
+	public String getDecodedPath();
+
+	/**
+	 * @return the decoded {@link #getQuery()} or {@code null} if that is
+	 *         {@code null}
+	 */
+	public String getDecodedQuery();
+
+	/**
+	 * The segments of {@link #getPath()} are the parts between its
+	 * {@code "/"} characters, including empty ones. An empty path has none,
+	 * so "http://a.com" and "http://a.com/" have no segments and
+	 * "http://a.com/x/" has two, the second one empty. The count is recorded
+	 * while parsing.
+	 *
+	 * @return the number of segments of the path
+	 */
+	public int segmentCount();
+
+	/**
+	 * @param index
+	 *            from 0 to {@link #segmentCount()} - 1
+	 * @return a view of the segment at {@code index} as written, without
+	 *         copying it
+	 * @throws IndexOutOfBoundsException
+	 *             if there is no such segment
+	 */
+	public CharSequence segment(int index);
+
+	/**
+	 * @return a new {@link SegmentCursor} over the segments of the path
+	 */
+	public SegmentCursor getSegments();
+
+	/**
+	 * @return a new {@link QueryCursor} over the parameters of the query,
+	 *         which has none if the query is absent
+	 */
+	public QueryCursor getQueryParameters();
+
+	/**
+	 * Looks up a parameter as written, stopping at the first match, without
+	 * creating a String for any other parameter.
+	 *
+	 * @param name
+	 *            the name of the parameter, as written in the query
+	 * @return the value of the first parameter called {@code name}, empty if
+	 *         it has no {@code "="}, or {@code null} if there is none
+	 */
+	public String getParameter(String name);
+
+	/**
+	 * Splits the query once into an unmodifiable map from each name to all
+	 * its values in query order, as for {@link #getParameter(String)}. The
+	 * map is built on first access and cached, and later calls to
+	 * {@link #getParameter(String)} look names up in it, which pays off for
+	 * URIs whose parameters are read many times.
+	 *
+	 * @return the parameters in order of their first occurrence, empty if
+	 *         the query is absent
+	 */
+	public Map<String, List<String>> getParameterMap();
+
+	/**
+	 * Writes the canonical form of this URI, the one returned by
+	 * {@link #toString()}, without creating intermediate Strings.
+	 *
+	 * @param out
+	 *            receives the characters
+	 * @throws IOException
+	 *             if {@code out} does
+	 */
+	public void writeTo(Appendable out) throws IOException;
+
+	/**
+	 * Writes the canonical form of this URI as ASCII bytes at the position
+	 * of {@code out} and advances it.
+	 *
+	 * @param out
+	 *            receives the bytes
+	 * @throws BufferOverflowException
+	 *             if fewer than {@link #canonicalLength()} bytes remain, in which case
+	 *             nothing is written
+	 */
+	public void writeTo(ByteBuffer out);
+
+	/**
+	 * @return the number of characters of the canonical form
+	 */
+	public int canonicalLength();
+
+	/**
+	 * The canonical form is {@code scheme "://" [ userinfo "@" ] host
+	 * [ "/" path ] [ "?" query ]}, built from the values of the getters: an
+	 * empty userinfo, path or query is left out together with its delimiter,
+	 * and an IPv4 host is written in its normalized form. Equal URIs
+	 * therefore have the same canonical form. The String is created on first
+	 * use and cached.
+	 *
+	 * @return the canonical form of this URI
+	 */
+	@Override
+	public String toString();
+
+	/**
+	 * Orders URIs component by component in the order they are written:
+	 * scheme, userinfo, host, path and query. Scheme, userinfo, path and
+	 * query compare as by {@link String#compareTo}, where an absent userinfo
+	 * or query sorts before any other. Hosts compare as by
+	 * {@link UriParserFactory#HOST_ORDER}: every IPv4address before every
+	 * reg-name. The order is consistent with {@link #equals(Object)}, and
+	 * {@link UriParserFactory#URI_ORDER} applies it to any {@link Uri}.
+	 *
+	 * @param other
+	 *            the URI to compare to
+	 * @return a negative number, zero or a positive number as this URI
+	 *         sorts before, with or after {@code other}
+	 */
+	@Override
+	public int compareTo(Uri other);
+
+	/**
+	 * The 64-bit hashes are meant for sharding and deduplication across
+	 * processes. They are computed from state the parser accumulated while
+	 * scanning, so they read no characters and allocate nothing, and they
+	 * are stable: the same URI and seed give the same value in every JVM and
+	 * every run. They are consistent with {@link #equals(Object)}, so an
+	 * IPv4 host hashes by its octets and an empty component like an absent
+	 * one. Different seeds give unrelated values, but inputs that collide
+	 * under one seed collide under all, so they are no defense against
+	 * chosen input.
+	 *
+	 * @param seed
+	 *            any value, for example one per sharding scheme
+	 * @return a 64-bit hash of the whole URI
+	 */
+	public long hash64(long seed);
+
+	/**
+	 * @return a 64-bit hash of the scheme and host together
+	 * @see #hash64(long)
+	 */
+	public long originHash64(long seed);
+
+	/**
+	 * @return a 64-bit hash of the host
+	 * @see #hash64(long)
+	 */
+	public long hostHash64(long seed);
+
+	/**
+	 * @return a 64-bit hash of the path
+	 * @see #hash64(long)
+	 */
+	public long pathHash64(long seed);
+
+	/**
+	 * The {@code with} methods derive a URI that differs from this one in a
+	 * single component. Only the new component is validated; the others are
+	 * known to be valid and are taken over, together with any values already
+	 * computed for them, such as Strings, the {@link Host} or the parameter
+	 * map. This instance is left unchanged.
+	 *
+	 * @return this URI with {@code scheme} as its scheme
+	 * @throws IllegalArgumentException
+	 *             if {@code scheme} is not a valid "scheme"
+	 */
+	public ParsedUri withScheme(String scheme);
+
+	/**
+	 * @param userInfo
+	 *            the new userinfo as written, {@code null} or empty to remove
+	 *            it
+	 * @throws IllegalArgumentException
+	 *             if {@code userInfo} is not a valid "userinfo"
+	 * @see #withScheme(String)
+	 */
+	public ParsedUri withUserInfo(String userInfo);
+
+	/**
+	 * @param host
+	 *            the new host as written
+	 * @throws IllegalArgumentException
+	 *             if {@code host} is not a valid "host"
+	 * @see #withScheme(String)
+	 */
+	public ParsedUri withHost(String host);
+
+	/**
+	 * @param path
+	 *            the new path as written, without the leading "/" as returned
+	 *            by {@link #getPath()}, empty to remove it
+	 * @throws IllegalArgumentException
+	 *             if {@code path} is not a valid "path"
+	 * @see #withScheme(String)
+	 */
+	public ParsedUri withPath(String path);
+
+	/**
+	 * @param query
+	 *            the new query as written, {@code null} or empty to remove it
+	 * @throws IllegalArgumentException
+	 *             if {@code query} is not a valid "query"
+	 * @see #withScheme(String)
+	 */
+	public ParsedUri withQuery(String query);
+
+	/**
+	 * Appends {@code name=value} to the query, or only {@code name} if
+	 * {@code value} is {@code null}.
+	 *
+	 * @param name
+	 *            the parameter name as written
+	 * @param value
+	 *            the parameter value as written, or {@code null}
+	 * @throws IllegalArgumentException
+	 *             if {@code name} or {@code value} is not valid in a
+	 *             "query", or contains a "&" or, for the name, a "="
+	 * @see #withScheme(String)
+	 */
+	public ParsedUri withParameter(String name, String value);
+
+}
@@ -0,0 +1,32 @@
+package uri;
+
+/**
+ * A thread-safe {@link ParserMetricsSink} that counts inputs per outcome and
+ * keeps a histogram of scan latencies. The counters are striped, so threads
+ * recording at once hardly contend. Latencies are kept in buckets whose width
+ * is at most 1/16 of their lower bound, which bounds the relative error of a
+ * percentile to about 6%, up to about 18 minutes.
+ * <p>
+ * The getters read the counters one after another while recording goes on,
+ * so they are consistent only once recording has stopped.
+ */
+public interface ParserMetrics extends ParserMetricsSink, ParserMetricsMXBean {
+
+	/**
+	 * @param error
+	 *            the kind of violation
+	 * @return the number of inputs rejected for {@code error}
+	 */
+	public long getRejectedCount(ParseError error);
+
+	/**
+	 * @param percentile
+	 *            between 0 and 100
+	 * @return the latency in nanoseconds that the given percentage of scans
+	 *         did not exceed, or 0 if nothing has been recorded
+	 * @throws IllegalArgumentException
+	 *             if {@code percentile} is not between 0 and 100
+	 */
+	public long getLatencyPercentile(double percentile);
+
+}
@@ -0,0 +1,65 @@
+package uri;
+
+import java.util.Map;
+
+/**
+ * The management interface of {@link ParserMetrics}. Every instance returned
+ * by {@link UriParserFactory#createMetrics()} can be registered with an
+ * {@code MBeanServer} as is:
+ *
+ * <pre>
+ * ManagementFactory.getPlatformMBeanServer().registerMBean(metrics, new ObjectName("uri:type=ParserMetrics"));
+ * </pre>
+ *
+ * Latencies are in nanoseconds.
+ */
+public interface ParserMetricsMXBean {
+
+	/**
+	 * @return the number of valid inputs
+	 */
+	public long getParsedCount();
+
+	/**
+	 * @return the number of invalid inputs, {@code null} included
+	 */
+	public long getRejectedCount();
+
+	/**
+	 * @return the number of invalid inputs by the name of their
+	 *         {@link ParseError}, with an entry for every kind
+	 */
+	public Map<String, Long> getRejectedCounts();
+
+	/**
+	 * @return the number of characters of all inputs, valid or not
+	 */
+	public long getCharacterCount();
+
+	/**
+	 * @return the median latency of a scan
+	 */
+	public long getLatencyMedian();
+
+	/**
+	 * @return the 99th percentile of the latency of a scan
+	 */
+	public long getLatency99thPercentile();
+
+	/**
+	 * @return the 99.9th percentile of the latency of a scan
+	 */
+	public long getLatency999thPercentile();
+
+	/**
+	 * @return the longest scan seen
+	 */
+	public long getMaxLatency();
+
+	/**
+	 * Sets all counts back to zero. Inputs recorded at the same time may or
+	 * may not be counted afterwards.
+	 */
+	public void reset();
+
+}
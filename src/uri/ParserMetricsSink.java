@@ -0,0 +1,30 @@
+package uri;
+
+/**
+ * Receives one measurement per input from a parser created by
+ * {@link UriParserFactory#stateless(ParserMetricsSink)}. The parser calls the
+ * sink on the parsing thread right after the scan, so implementations must be
+ * thread-safe and should be cheap; {@link ParserMetrics} is one backed by
+ * striped counters.
+ */
+public interface ParserMetricsSink {
+
+	/**
+	 * @param length
+	 *            the number of characters of the input
+	 * @param nanos
+	 *            how long the scan took
+	 */
+	public void parsed(int length, long nanos);
+
+	/**
+	 * @param error
+	 *            the first violation of the grammar, as in {@link ParseError}
+	 * @param length
+	 *            the number of characters of the input, 0 for {@code null}
+	 * @param nanos
+	 *            how long the scan took until it stopped, 0 for {@code null}
+	 */
+	public void rejected(ParseError error, int length, long nanos);
+
+}
@@ -0,0 +1,71 @@
+package uri;
+
+/**
+ * Steps through the parameters of a "query" in place, without creating a
+ * String per parameter.
+ * <p>
+ * The query is split at each {@code "&"}, and empty parameters are skipped.
+ * A parameter's name ends at its first {@code "="}. Its value is the rest of
+ * the parameter and may contain further {@code "="} characters. Names and
+ * values are reported as written, so "pct-encoded" triplets are not
+ * decoded.
+ * <p>
+ * Offsets are indices into the String returned by {@link Uri#getQuery()},
+ * but the cursor does not create that String. A cursor starts before the
+ * first parameter and is not thread-safe.
+ */
+public interface QueryCursor {
+
+	/**
+	 * Moves to the next parameter.
+	 *
+	 * @return {@code true} if there is one, {@code false} once the end of the
+	 *         query has been reached
+	 */
+	public boolean next();
+
+	/**
+	 * @return the index of the first character of the current name
+	 */
+	public int getNameStart();
+
+	/**
+	 * @return the index after the last character of the current name
+	 */
+	public int getNameEnd();
+
+	/**
+	 * @return {@code true} if the current parameter contains a {@code "="}
+	 */
+	public boolean hasValue();
+
+	/**
+	 * @return the index of the first character of the current value, which
+	 *         equals {@link #getValueEnd()} if there is no value
+	 */
+	public int getValueStart();
+
+	/**
+	 * @return the index after the last character of the current value
+	 */
+	public int getValueEnd();
+
+	/**
+	 * Compares without creating a String.
+	 *
+	 * @return {@code true} if the current name equals {@code name}
+	 */
+	public boolean nameEquals(CharSequence name);
+
+	/**
+	 * @return a new String holding the current name
+	 */
+	public String getName();
+
+	/**
+	 * @return a new String holding the current value, empty if the parameter
+	 *         has no {@code "="}
+	 */
+	public String getValue();
+
+}
@@ -0,0 +1,44 @@
+package uri;
+
+/**
+ * Steps through the segments of a "path" in place, without creating a
+ * String per segment. The segments are the ones counted by
+ * {@link ParsedUri#segmentCount()}, reported as written.
+ * <p>
+ * Offsets are indices into the String returned by {@link Uri#getPath()}, but
+ * the cursor does not create that String. A cursor starts before the first
+ * segment and is not thread-safe.
+ */
+public interface SegmentCursor {
+
+	/**
+	 * Moves to the next segment.
+	 *
+	 * @return {@code true} if there is one, {@code false} once the end of the
+	 *         path has been reached
+	 */
+	public boolean next();
+
+	/**
+	 * @return the index of the first character of the current segment
+	 */
+	public int getStart();
+
+	/**
+	 * @return the index after the last character of the current segment
+	 */
+	public int getEnd();
+
+	/**
+	 * Compares without creating a String.
+	 *
+	 * @return {@code true} if the current segment equals {@code segment}
+	 */
+	public boolean segmentEquals(CharSequence segment);
+
+	/**
+	 * @return a new String holding the current segment
+	 */
+	public String getSegment();
+
+}
@@ -0,0 +1,134 @@
+package uri;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
+/**
+ * A parser for URIs according to the specification in {@link Uri} that keeps
+ * no state between calls. Unlike {@link UriParser}, one instance parses any
+ * number of inputs and may be shared freely between threads.
+ */
+public interface StatelessUriParser {
+
+	/**
+	 * The returned {@link Uri} refers to {@code uri} instead of copying it, so
+	 * the content of a mutable {@link CharSequence} must not change while the
+	 * result is in use.
+	 *
+	 * @param uri
+	 *            the URI to parse
+	 * @return the parsed {@link Uri} instance or null when {@code uri} is
+	 *         {@code null} or not a valid {@link Uri} with regards to the
+	 *         grammar given in {@link Uri}
+	 */
+	public ParsedUri parse(CharSequence uri);
+
+	/**
+	 * Like {@link #parse(CharSequence)}, but reports why an invalid input was
+	 * rejected. The scan stops at the first character that violates the
+	 * grammar, as it does for {@link #parse(CharSequence)}, so a rejected
+	 * input costs no more than the part of it that was read.
+	 *
+	 * @param uri
+	 *            the URI to parse
+	 * @return the parsed URI or the kind and offset of the first violation,
+	 *         never {@code null}
+	 */
+	public ParseResult tryParse(CharSequence uri);
+
+	/**
+	 * Like {@link #parse(CharSequence)}, but brings the URI into the normal
+	 * form described in {@link NormalizedUri} and computes its fingerprint
+	 * right after the scan, in one more pass over the component boundaries.
+	 * An input already in normal form is referred to instead of copied, as
+	 * for {@link #parse(CharSequence)}.
+	 *
+	 * @param uri
+	 *            the URI to parse
+	 * @return the normalized URI or {@code null} when {@code uri} is
+	 *         {@code null} or not a valid {@link Uri}
+	 */
+	public NormalizedUri parseNormalized(CharSequence uri);
+
+	/**
+	 * Parses ASCII bytes without decoding them first. Every character of the
+	 * grammar is ASCII, so UTF-8 input can be passed as is; any byte of 0x80
+	 * or above makes the input invalid. The bytes are only copied once they
+	 * have been found valid, so the returned {@link Uri} does not depend on
+	 * the array afterwards.
+	 *
+	 * @param uri
+	 *            holds the URI to parse
+	 * @param offset
+	 *            the index of the first byte of the URI
+	 * @param length
+	 *            the number of bytes of the URI
+	 * @return the parsed {@link Uri} instance or null when {@code uri} is
+	 *         {@code null} or the bytes are not a valid {@link Uri}
+	 * @throws IndexOutOfBoundsException
+	 *             if the range does not lie within {@code uri}
+	 */
+	public ParsedUri parseBytes(byte[] uri, int offset, int length);
+
+	/**
+	 * Like {@link #parseBytes(byte[], int, int)} for the bytes between the
+	 * position and the limit of {@code uri}, which may be a direct buffer.
+	 * The position of {@code uri} is not changed.
+	 */
+	public ParsedUri parseBytes(ByteBuffer uri);
+
+	/**
+	 * Parses every element of {@code uris} as if by {@link #parse}, reusing the
+	 * same scratch state for the whole array.
+	 *
+	 * @param uris
+	 *            the URIs to parse, {@code null} elements are invalid
+	 * @param results
+	 *            receives the parsed {@link Uri} or {@code null} for each input
+	 *            at the same index, at least as long as {@code uris}
+	 * @return the number of valid URIs
+	 */
+	public int parseAll(CharSequence[] uris, Uri[] results);
+
+	/**
+	 * Like {@link #parseAll(CharSequence[], Uri[])} for a {@link List}.
+	 */
+	public int parseAll(List<? extends CharSequence> uris, Uri[] results);
+
+	/**
+	 * Parses the elements of {@code uris} in encounter order into a columnar
+	 * {@link UriBatch}, without creating a {@link Uri} per element.
+	 *
+	 * @param uris
+	 *            the URIs to parse, {@code null} elements are invalid
+	 * @return the results in the order of {@code uris}
+	 */
+	public UriBatch parseAll(Stream<? extends CharSequence> uris);
+
+	/**
+	 * Like {@link #parseAll(CharSequence[], Uri[])}, but splits the array
+	 * into ranges that are parsed as tasks in {@code pool}. Every result is
+	 * still written to the index of its input.
+	 *
+	 * @param pool
+	 *            the pool to run in, for example
+	 *            {@link ForkJoinPool#commonPool()}
+	 */
+	public int parseAll(CharSequence[] uris, Uri[] results, ForkJoinPool pool);
+
+	/**
+	 * Parses each line of newline-delimited {@code text}, where a line ends at
+	 * "\n" and a "\r" before it is ignored. The stream is sequential; call
+	 * {@link Stream#parallel()} to have its spliterator split the text at line
+	 * breaks. The resulting URIs are backed by {@code text} without copying.
+	 *
+	 * @param text
+	 *            the lines to parse
+	 * @return one element per line in line order, {@code null} for each line
+	 *         that is not a valid {@link Uri}
+	 */
+	public Stream<Uri> parseLines(CharSequence text);
+
+}
@@ -0,0 +1,37 @@
+package uri;
+
+/**
+ * The results of parsing a sequence of URIs, stored column by column.
+ * <p>
+ * Each entry keeps a reference to its input and the boundaries of its
+ * components in primitive arrays, so no {@link Uri} object exists until
+ * {@link #get(int)} asks for one.
+ */
+public interface UriBatch {
+
+	/**
+	 * @return the number of parsed inputs, valid or not
+	 */
+	public int size();
+
+	/**
+	 * @return the number of inputs that were valid {@link Uri}s
+	 */
+	public int validCount();
+
+	/**
+	 * @param index
+	 *            the position of the input, from 0 to {@link #size()} - 1
+	 * @return {@code true} if the input at {@code index} is a valid {@link Uri}
+	 */
+	public boolean isValid(int index);
+
+	/**
+	 * @param index
+	 *            the position of the input, from 0 to {@link #size()} - 1
+	 * @return a new {@link Uri} backed by the input at {@code index} or
+	 *         {@code null} if that input is not valid
+	 */
+	public ParsedUri get(int index);
+
+}
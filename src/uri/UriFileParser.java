@@ -0,0 +1,36 @@
+package uri;
+
+import java.io.IOException;
+import java.util.function.Consumer;
+
+/**
+ * A parser for a file of newline-delimited URIs according to the
+ * specification in {@link Uri}. A line ends at "\n", and a "\r" before it is
+ * not part of the line.
+ */
+public interface UriFileParser {
+
+	/**
+	 * Parses every line of the file, in order, and passes it to
+	 * {@code action} as a {@link UriRecord}. The counts of
+	 * {@link #getValidCount()} and {@link #getInvalidCount()} are reset at the
+	 * start of every call.
+	 *
+	 * @param action
+	 *            receives one record per line
+	 * @throws IOException
+	 *             if the file cannot be read
+	 */
+	public void forEach(Consumer<? super UriRecord> action) throws IOException;
+
+	/**
+	 * @return the number of valid lines seen by the last {@link #forEach}
+	 */
+	public long getValidCount();
+
+	/**
+	 * @return the number of invalid lines seen by the last {@link #forEach}
+	 */
+	public long getInvalidCount();
+
+}
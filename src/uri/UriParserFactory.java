@@ -1,6 +1,17 @@
 package uri;
 
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Map;
+
+import uri.implementation.CachingUriParserImplementation;
+import uri.implementation.HostImplementation;
+import uri.implementation.ParserMetricsImplementation;
+import uri.implementation.StatelessUriParserImplementation;
+import uri.implementation.UriFileParserImplementation;
+import uri.implementation.UriImplementation;
 import uri.implementation.UriParserImplementation;
+import uri.implementation.UriRouterImplementation;
 
 /**
  * A factory class for creating {@link UriParser} instances.
@@ -10,6 +21,21 @@
  */
 public final class UriParserFactory {
 
+	/**
+	 * Orders hosts with every {@link IPv4Address} first, by the unsigned
+	 * value of its octets, followed by the reg-names in {@link String} order
+	 * of {@link Host#toString()}. An IPv4address written with leading zeros
+	 * sorts like the one without.
+	 */
+	public static final Comparator<Host> HOST_ORDER = HostImplementation::compare;
+
+	/**
+	 * The order of {@link ParsedUri#compareTo(Uri)}, for any {@link Uri}
+	 * implementation: by scheme, userinfo, host as by {@link #HOST_ORDER},
+	 * path and query, where an absent userinfo or query sorts first.
+	 */
+	public static final Comparator<Uri> URI_ORDER = UriImplementation::compare;
+
 	/**
 	 * @param uri
 	 *            The URI that will be parsed
@@ -25,4 +51,88 @@ public static UriParser create(String uri) {
 		return new UriParserImplementation(uri);
 	}
 
+	/**
+	 * @return the shared, thread-safe parser that accepts a new input on every
+	 *         call instead of allocating a {@link UriParser} per URI
+	 */
+	public static StatelessUriParser stateless() {
+		return StatelessUriParserImplementation.INSTANCE;
+	}
+
+	/**
+	 * @param sink
+	 *            receives the outcome and duration of every scan, such as a
+	 *            {@link ParserMetrics} from {@link #createMetrics()}
+	 * @return a thread-safe parser like {@link #stateless()} that reports
+	 *         every input to {@code sink}, or {@link #stateless()} itself if
+	 *         {@code sink} is {@code null}
+	 */
+	public static StatelessUriParser stateless(ParserMetricsSink sink) {
+		if (sink == null) {
+			return StatelessUriParserImplementation.INSTANCE;
+		}
+		return new StatelessUriParserImplementation(sink);
+	}
+
+	/**
+	 * @return new, empty metrics to pass to
+	 *         {@link #stateless(ParserMetricsSink)}
+	 */
+	public static ParserMetrics createMetrics() {
+		return new ParserMetricsImplementation();
+	}
+
+	/**
+	 * @param maximumSize
+	 *            The maximum number of inputs to remember, at least 1
+	 * @return A new thread-safe parser that returns the same {@link Uri} for
+	 *         repeated inputs
+	 */
+	public static CachingUriParser caching(int maximumSize) {
+		return new CachingUriParserImplementation(maximumSize);
+	}
+
+	/**
+	 * @param file
+	 *            A file of newline-delimited URIs
+	 * @return A parser that memory-maps {@code file} and scans it in place or
+	 *         {@code null} if {@code file} is {@code null}
+	 */
+	public static UriFileParser createFileParser(Path file) {
+		if (file == null) {
+			return null;
+		}
+		return new UriFileParserImplementation(file);
+	}
+
+	/**
+	 * @param file
+	 *            A file of newline-delimited URIs
+	 * @param sink
+	 *            receives the outcome and duration of every line's scan, as
+	 *            for {@link #stateless(ParserMetricsSink)}, or {@code null}
+	 * @return A parser like {@link #createFileParser(Path)} that reports
+	 *         every line to {@code sink}, or {@code null} if {@code file} is
+	 *         {@code null}
+	 */
+	public static UriFileParser createFileParser(Path file, ParserMetricsSink sink) {
+		if (file == null) {
+			return null;
+		}
+		return new UriFileParserImplementation(file, sink);
+	}
+
+	/**
+	 * @param routes
+	 *            The route patterns, as described in {@link UriRouter}, and
+	 *            their values
+	 * @return A router that matches URIs against {@code routes}
+	 * @throws IllegalArgumentException
+	 *             if a pattern is not valid, is given twice or has a
+	 *             {@code null} value
+	 */
+	public static <T> UriRouter<T> createRouter(Map<String, ? extends T> routes) {
+		return new UriRouterImplementation<>(routes);
+	}
+
 }
@@ -0,0 +1,70 @@
+package uri;
+
+/**
+ * One line of a file read by a {@link UriFileParser}, viewed in place.
+ * <p>
+ * The same instance is handed out for every line, and the component views it
+ * returns are reused as well. They are only valid until the next line is
+ * visited; use {@link #toUri()} or {@link CharSequence#toString()} to keep a
+ * value.
+ */
+public interface UriRecord {
+
+	/**
+	 * @return the byte offset of the start of the line in the file
+	 */
+	public long getPosition();
+
+	/**
+	 * @return the number of bytes in the line, without its line break
+	 */
+	public int getLength();
+
+	/**
+	 * @return {@code true} if the line is a valid {@link Uri}
+	 */
+	public boolean isValid();
+
+	/**
+	 * @return a view of the "scheme" or {@code null} if the line is not valid
+	 */
+	public CharSequence getScheme();
+
+	/**
+	 * @return a view of the "userinfo" or {@code null} if the line is not
+	 *         valid or has no (or an empty) userinfo, as in
+	 *         {@link Uri#getUserInfo()}
+	 */
+	public CharSequence getUserInfo();
+
+	/**
+	 * @return a view of the "host" as written in the line, or {@code null} if
+	 *         the line is not valid
+	 */
+	public CharSequence getHost();
+
+	/**
+	 * @return {@code true} if the line is valid and its host is an
+	 *         "IPv4address"
+	 */
+	public boolean isIPv4Address();
+
+	/**
+	 * @return a view of the "path" as in {@link Uri#getPath()} or
+	 *         {@code null} if the line is not valid
+	 */
+	public CharSequence getPath();
+
+	/**
+	 * @return a view of the "query" or {@code null} if the line is not valid
+	 *         or has no (or an empty) query, as in {@link Uri#getQuery()}
+	 */
+	public CharSequence getQuery();
+
+	/**
+	 * @return a {@link Uri} holding its own copy of the line, or {@code null}
+	 *         if the line is not valid
+	 */
+	public ParsedUri toUri();
+
+}
@@ -0,0 +1,49 @@
+package uri;
+
+/**
+ * Maps URIs to the values of the routes they match, for a fixed set of routes
+ * compiled by {@link UriParserFactory#createRouter(java.util.Map)}.
+ * <p>
+ * A route is written as {@code host [ "/" path ]}:
+ * <ul>
+ * <li>The host is a name or IPv4 address as returned by
+ * {@code Host.toString()}, {@code "*"} for any host, or {@code "*."} followed
+ * by a name for any host with at least one label before that name.</li>
+ * <li>The path is a sequence of {@code "/"} separated segments as in
+ * {@link ParsedUri#segmentCount()}. A segment {@code "*"} matches any single
+ * segment, and a last segment {@code "**"} matches any number of remaining
+ * segments, including none. Without a path, a route only matches URIs with an
+ * empty path.</li>
+ * </ul>
+ * Segments and host names are compared as written, without decoding.
+ * <p>
+ * When several routes match, the more specific one wins. Hosts are compared
+ * first: an exact name beats a {@code "*."} pattern, a longer {@code "*."}
+ * pattern beats a shorter one, and any of them beats {@code "*"}. Then path
+ * segments are compared from left to right: a literal beats {@code "*"}, and
+ * {@code "*"} beats {@code "**"}.
+ * <p>
+ * Instances are immutable and may be shared between threads.
+ *
+ * @param <T>
+ *            the type of the route values
+ */
+public interface UriRouter<T> {
+
+	/**
+	 * Finds the most specific route for {@code uri}. Without wildcards the
+	 * lookup takes one step per host label and path segment.
+	 *
+	 * @param uri
+	 *            the URI to route
+	 * @return the value of the matching route or {@code null} if
+	 *         {@code uri} is {@code null} or no route matches
+	 */
+	public T route(Uri uri);
+
+	/**
+	 * @return the number of routes
+	 */
+	public int size();
+
+}
@@ -0,0 +1,58 @@
+package uri.implementation;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A {@link CharSequence} view of bytes in a {@link ByteBuffer}, one char per
+ * byte. Every character of the {@link uri.Uri} grammar is ASCII, so the
+ * scanner can run on raw bytes through this view without decoding them. A
+ * byte of 0x80 or above becomes a char of 128 or above, which no character
+ * class of the grammar contains, so non-ASCII input is rejected like any
+ * other illegal character.
+ * <p>
+ * Index 0 of the view is byte {@code start} of the buffer. Only absolute
+ * gets are used, so the buffer's position and limit are never changed.
+ */
+final class AsciiSequence implements CharSequence {
+	private final ByteBuffer bytes;
+	private final int start;
+	private final int end;
+
+	AsciiSequence(ByteBuffer bytes, int start, int end) {
+		this.bytes = bytes;
+		this.start = start;
+		this.end = end;
+	}
+
+	@Override
+	public int length() {
+		return end - start;
+	}
+
+	@Override
+	public char charAt(int index) {
+		return (char) (bytes.get(start + index) & 0xFF);
+	}
+
+	/**
+	 * @return a copy of the bytes in the range as a String
+	 */
+	@Override
+	public CharSequence subSequence(int from, int to) {
+		if (bytes.hasArray()) {
+			return new String(bytes.array(), bytes.arrayOffset() + start + from, to - from, StandardCharsets.ISO_8859_1);
+		}
+		byte[] copy = new byte[to - from];
+		ByteBuffer view = bytes.duplicate();
+		view.position(start + from);
+		view.get(copy);
+		return new String(copy, StandardCharsets.ISO_8859_1);
+	}
+
+	@Override
+	public String toString() {
+		return subSequence(0, length()).toString();
+	}
+
+}
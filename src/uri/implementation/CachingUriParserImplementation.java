@@ -0,0 +1,125 @@
+package uri.implementation;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import uri.CachingUriParser;
+import uri.ParsedUri;
+
+/**
+ * A {@link CachingUriParser} made of lock-striped LRU segments. The key's
+ * hash selects a segment, and each segment is an access-ordered
+ * {@link LinkedHashMap} guarded by its own lock, so threads only contend when
+ * their inputs fall into the same segment. Inputs are scanned outside of any
+ * lock.
+ * <p>
+ * Invalid inputs are remembered as well, as a {@code null} value, since
+ * repeated garbage is just as common as repeated valid URIs.
+ */
+public class CachingUriParserImplementation implements CachingUriParser {
+	private static final int MAX_SEGMENTS = 16;
+
+	private final Segment[] segments;
+	private final int maximumSize;
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+
+	/**
+	 * @param maximumSize
+	 *            the maximum number of inputs to remember, at least 1
+	 */
+	public CachingUriParserImplementation(int maximumSize) {
+		if (maximumSize < 1) {
+			throw new IllegalArgumentException("maximumSize must be at least 1: " + maximumSize);
+		}
+		int count = Math.min(MAX_SEGMENTS, Integer.highestOneBit(maximumSize));
+		segments = new Segment[count];
+		// the first segments take the remainder, so the capacities add up
+		for (int i = 0; i < count; i++) {
+			segments[i] = new Segment(maximumSize / count + (i < maximumSize % count ? 1 : 0));
+		}
+		this.maximumSize = maximumSize;
+	}
+
+	@Override
+	public ParsedUri parse(CharSequence uri) {
+		if (uri == null) {
+			return null;
+		}
+		// the remembered Uri must not depend on a mutable input
+		String key = uri.toString();
+		int hash = key.hashCode();
+		Segment segment = segments[(hash ^ hash >>> 16) & (segments.length - 1)];
+		synchronized (segment) {
+			ParsedUri cached = segment.get(key);
+			if (cached != null || segment.containsKey(key)) {
+				hits.increment();
+				return cached;
+			}
+		}
+		misses.increment();
+		ParsedUri parsed = StatelessUriParserImplementation.INSTANCE.parse(key);
+		synchronized (segment) {
+			// another thread may have parsed the same input meanwhile
+			if (segment.containsKey(key)) {
+				return segment.get(key);
+			}
+			segment.put(key, parsed);
+		}
+		return parsed;
+	}
+
+	@Override
+	public int size() {
+		int size = 0;
+		for (Segment segment : segments) {
+			synchronized (segment) {
+				size += segment.size();
+			}
+		}
+		return size;
+	}
+
+	@Override
+	public int getMaximumSize() {
+		return maximumSize;
+	}
+
+	@Override
+	public long getHitCount() {
+		return hits.sum();
+	}
+
+	@Override
+	public long getMissCount() {
+		return misses.sum();
+	}
+
+	@Override
+	public long getEvictionCount() {
+		return evictions.sum();
+	}
+
+	private final class Segment extends LinkedHashMap<String, ParsedUri> {
+		private static final long serialVersionUID = 1L;
+
+		private final int capacity;
+
+		Segment(int capacity) {
+			super(16, 0.75f, true);
+			this.capacity = capacity;
+		}
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, ParsedUri> eldest) {
+			if (size() > capacity) {
+				evictions.increment();
+				return true;
+			}
+			return false;
+		}
+	}
+
+}
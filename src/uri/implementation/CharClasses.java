@@ -0,0 +1,64 @@
+package uri.implementation;
+
+/**
+ * The character classes of the {@link uri.Uri} grammar as one table of bit
+ * flags, indexed by the character. Every character the grammar admits is
+ * ASCII, so any character of 128 or above belongs to no class.
+ */
+final class CharClasses {
+	// ALPHA = "A"-"Z" / "a"-"z"
+	static final int ALPHA = 1;
+	// DIGIT = "0"-"9"
+	static final int DIGIT = 1 << 1;
+	// HEXDIGIT = DIGIT / "A"-"F" / "a"-"f"
+	static final int HEXDIG = 1 << 2;
+	// unreserved = ALPHA / DIGIT / "."
+	static final int UNRESERVED = 1 << 3;
+	// pchar = unreserved / pct-encoded, the characters a pchar starts with
+	static final int PCHAR = 1 << 4;
+	// userinfo = *( pchar / ":" )
+	static final int USERINFO_EXTRA = 1 << 5;
+	// query = *( pchar / "&" / "=" )
+	static final int QUERY_EXTRA = 1 << 6;
+	// path = *( "/" *pchar )
+	static final int PATH_EXTRA = 1 << 7;
+
+	private static final short[] TABLE = new short[128];
+
+	static {
+		for (char c = 'a'; c <= 'z'; c++) {
+			TABLE[c] |= ALPHA | UNRESERVED | PCHAR;
+			TABLE[c - 'a' + 'A'] |= ALPHA | UNRESERVED | PCHAR;
+		}
+		for (char c = '0'; c <= '9'; c++) {
+			TABLE[c] |= DIGIT | HEXDIG | UNRESERVED | PCHAR;
+		}
+		for (char c = 'a'; c <= 'f'; c++) {
+			TABLE[c] |= HEXDIG;
+			TABLE[c - 'a' + 'A'] |= HEXDIG;
+		}
+		TABLE['.'] |= UNRESERVED | PCHAR;
+		TABLE['%'] |= PCHAR;
+		TABLE[':'] |= USERINFO_EXTRA;
+		TABLE['&'] |= QUERY_EXTRA;
+		TABLE['='] |= QUERY_EXTRA;
+		TABLE['/'] |= PATH_EXTRA;
+	}
+
+	private CharClasses() {
+	}
+
+	/**
+	 * @return the flags of all classes {@code c} belongs to
+	 */
+	static int of(char c) {
+		return c < 128 ? TABLE[c] : 0;
+	}
+
+	/**
+	 * @return {@code true} if {@code c} belongs to any of {@code classes}
+	 */
+	static boolean is(char c, int classes) {
+		return c < 128 && (TABLE[c] & classes) != 0;
+	}
+}
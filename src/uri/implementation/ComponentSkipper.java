@@ -0,0 +1,90 @@
+package uri.implementation;
+
+import java.lang.reflect.Constructor;
+
+/**
+ * An optional bulk backend for {@link UriScanner}: skips the run of plain
+ * characters at the start of a long path or query many characters per step
+ * and hashes them on the way, into both hashes the scanner keeps, so that
+ * only the characters ending the run ("%", "?" or an invalid one) go
+ * through the scanner's own loop.
+ * <p>
+ * The only backend is {@code VectorComponentSkipper}, which uses
+ * {@code jdk.incubator.vector} and lives in the separate {@code src-vector}
+ * source root, since the parser itself targets Java 8. It is looked up
+ * reflectively; when it is not on the class path, the module is not
+ * resolved ({@code --add-modules jdk.incubator.vector}), the hardware has no
+ * wide enough vectors or the system property {@code uri.scalar} is
+ * {@code true}, {@link #create()} returns {@code null} and the scanner stays
+ * scalar.
+ */
+abstract class ComponentSkipper {
+	// the run classes, both also contain ALPHA / DIGIT / "."
+	static final int PATH = 0; // and "/"
+	static final int QUERY = 1; // and "&" / "="
+
+	// shorter ranges are not worth leaving the scalar loop for
+	static final int MIN_LENGTH = 64;
+	// after a "%", the scanner's loop needs that many plain characters in a
+	// row before it calls skip() again, since a component dense with "%"
+	// would otherwise call it for every few characters
+	static final int MIN_RUN = 16;
+
+	private static final Constructor<? extends ComponentSkipper> BACKEND = backend();
+
+	/**
+	 * The {@link String#hashCode()} accumulated so far, read and updated by
+	 * {@link #skip}.
+	 */
+	int hash;
+	/**
+	 * The {@link Hash64} state accumulated so far, read and updated by
+	 * {@link #skip}.
+	 */
+	long hash64;
+	/**
+	 * The number of "/" in a path so far, read and updated by {@link #skip}.
+	 */
+	int slashes;
+
+	/**
+	 * @param component
+	 *            {@link #PATH} or {@link #QUERY}
+	 * @return the index of the first character in {@code input[from, to)}
+	 *         that is not in the run class of {@code component}, at most
+	 *         {@code to}; may stop early, down to {@code from}, when a bulk
+	 *         step is not possible
+	 */
+	abstract int skip(CharSequence input, int from, int to, int component);
+
+	/**
+	 * @return a new backend for one {@link UriScanner}, or {@code null} if
+	 *         none is available
+	 */
+	static ComponentSkipper create() {
+		if (BACKEND == null) {
+			return null;
+		}
+		try {
+			return BACKEND.newInstance();
+		} catch (ReflectiveOperationException e) {
+			return null;
+		}
+	}
+
+	private static Constructor<? extends ComponentSkipper> backend() {
+		if (Boolean.getBoolean("uri.scalar")) {
+			return null;
+		}
+		try {
+			Constructor<? extends ComponentSkipper> constructor = Class
+					.forName("uri.implementation.VectorComponentSkipper").asSubclass(ComponentSkipper.class)
+					.getDeclaredConstructor();
+			// fails if the hardware is not supported
+			constructor.newInstance();
+			return constructor;
+		} catch (ReflectiveOperationException | LinkageError | RuntimeException e) {
+			return null;
+		}
+	}
+}
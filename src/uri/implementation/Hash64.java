@@ -0,0 +1,77 @@
+package uri.implementation;
+
+/**
+ * The 64-bit hashes of {@link uri.ParsedUri}.
+ * <p>
+ * While scanning, each component is folded into a 64-bit state with the
+ * recurrence of {@link String#hashCode()}, {@code state = state * MULTIPLIER
+ * + c}, only with a large odd multiplier and 64-bit arithmetic. This costs
+ * one multiply-add per character beside the 32-bit hash, can be advanced a
+ * vector at a time like it, and does not depend on the JVM, so states are
+ * stable across runs. A state is not a good hash by itself, since its low
+ * bits only depend on few characters; {@link #finish} runs it through the
+ * {@code fmix64} step of MurmurHash3 together with the seed. Changing the
+ * seed changes every result, but two inputs whose states collide collide
+ * under every seed, so the hashes suit sharding and deduplication, not
+ * input chosen by an adversary.
+ */
+final class Hash64 {
+	// the 64-bit golden ratio, odd and with well spread bits
+	static final long MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+	private Hash64() {
+	}
+
+	/**
+	 * @return the state of an IPv4address host, which like its
+	 *         {@link uri.Host#hashCode()} depends only on the octets
+	 */
+	static long address(int address) {
+		return 1L << 32 | address & 0xFFFFFFFFL;
+	}
+
+	/**
+	 * @return the state of {@code input[from, to)}
+	 */
+	static long of(CharSequence input, int from, int to) {
+		long state = 0;
+		for (int i = from; i < to; i++) {
+			state = state * MULTIPLIER + input.charAt(i);
+		}
+		return state;
+	}
+
+	/**
+	 * @return a state for the sequence of {@code first} and {@code second},
+	 *         in that order; the rotation keeps it from being the state of
+	 *         the concatenated text, and {@link #finish} does the mixing
+	 */
+	static long combine(long first, long second) {
+		return Long.rotateLeft(first, 29) * MULTIPLIER + second;
+	}
+
+	/**
+	 * @return the state of a whole URI from the states of its components
+	 */
+	static long combine(long scheme, long userInfo, long host, long path, long query) {
+		return combine(combine(combine(combine(scheme, userInfo), host), path), query);
+	}
+
+	/**
+	 * @return the hash of {@code state} under {@code seed}
+	 */
+	static long finish(long state, long seed) {
+		return mix(state ^ mix(seed + MULTIPLIER));
+	}
+
+	/**
+	 * @return {@code hash} through the {@code fmix64} step of MurmurHash3
+	 */
+	static long mix(long hash) {
+		hash ^= hash >>> 33;
+		hash *= 0xFF51AFD7ED558CCDL;
+		hash ^= hash >>> 33;
+		hash *= 0xC4CEB9FE1A85EC53L;
+		return hash ^ hash >>> 33;
+	}
+}
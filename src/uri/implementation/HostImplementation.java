@@ -1,22 +1,91 @@
 package uri.implementation;
 
 import uri.Host;
+import uri.IPv4Address;
 
-// TODO implement this class or another implementation of Host
-public class HostImplementation implements Host {
-	String host;
+/**
+ * A {@link Host} given by a "reg-name". The hash of the name is computed
+ * once, by the same formula as {@link String#hashCode()}, so that
+ * {@link HostPool} can compare candidates without creating a String and
+ * {@link #hashCode()} is a field read.
+ */
+public class HostImplementation implements Host, Comparable<Host> {
+	final String host;
+	final int hash;
 
 	public HostImplementation(String host) {
+		this(host == null ? "" : host, host == null ? 0 : host.hashCode());
+	}
+
+	HostImplementation(String host, int hash) {
 		this.host = host;
+		this.hash = hash;
+	}
+
+	/**
+	 * @return {@code true} if this host's name equals {@code source[start, end)}
+	 */
+	final boolean matches(CharSequence source, int start, int end) {
+		if (host.length() != end - start) {
+			return false;
+		}
+		for (int i = start; i < end; i++) {
+			if (host.charAt(i - start) != source.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
 	}
 
 	@Override
-	public String toString() {
-		if (host == null){
-			return "";
-		} else {
-			return "" + host;
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
 		}
+		if (!(obj instanceof HostImplementation)) {
+			return false;
+		}
+		HostImplementation other = (HostImplementation) obj;
+		return hash == other.hash && host.equals(other.host);
+	}
+
+	@Override
+	public int hashCode() {
+		return hash;
+	}
+
+	@Override
+	public int compareTo(Host other) {
+		return compare(this, other);
+	}
+
+	/**
+	 * Orders hosts with all {@link IPv4Address}es first, by their unsigned
+	 * value, followed by the reg-names in {@link String} order.
+	 */
+	public static int compare(Host a, Host b) {
+		boolean aIPv4 = a instanceof IPv4Address;
+		boolean bIPv4 = b instanceof IPv4Address;
+		if (aIPv4 != bIPv4) {
+			return aIPv4 ? -1 : 1;
+		}
+		if (aIPv4) {
+			return Integer.compareUnsigned(packed((IPv4Address) a), packed((IPv4Address) b));
+		}
+		return a.toString().compareTo(b.toString());
+	}
+
+	private static int packed(IPv4Address host) {
+		if (host instanceof IPv4AddressImplementation) {
+			return ((IPv4AddressImplementation) host).address;
+		}
+		byte[] octets = host.getOctets();
+		return (octets[0] & 0xFF) << 24 | (octets[1] & 0xFF) << 16 | (octets[2] & 0xFF) << 8 | (octets[3] & 0xFF);
+	}
+
+	@Override
+	public String toString() {
+		return host;
 	}
 
 }
@@ -0,0 +1,62 @@
+package uri.implementation;
+
+/**
+ * Canonical {@link uri.Host} instances for hosts that occur again and again.
+ * <p>
+ * Each pool is a fixed-size, direct-mapped table: the hash of a host selects
+ * one slot, a matching host in that slot is returned as is, and otherwise a
+ * new host replaces it. The memory used is therefore bounded no matter how
+ * many distinct hosts are parsed. Since the scan already hashed the host, a
+ * hit costs one comparison of its characters but neither a String nor a Host
+ * allocation.
+ * <p>
+ * The tables are read and written without locks. That is safe because what
+ * identifies a pooled host, its name and hash or its address, is held in
+ * final fields, so a thread that reads a slot either sees a fully
+ * constructed host, which is then compared with the wanted one, or an older
+ * or empty slot, which only costs a miss. The only mutable field is the text
+ * an {@link IPv4AddressImplementation} caches, which any thread that finds
+ * it unset recomputes to the same String from the final address.
+ */
+final class HostPool {
+	private static final int BITS = 12;
+	private static final int SIZE = 1 << BITS;
+
+	private static final HostImplementation[] NAMES = new HostImplementation[SIZE];
+	private static final IPv4AddressImplementation[] ADDRESSES = new IPv4AddressImplementation[SIZE];
+
+	private HostPool() {
+	}
+
+	/**
+	 * @param hash
+	 *            the {@link String#hashCode()} of the name, as computed by the
+	 *            scan
+	 * @return the pooled reg-name {@code source[start, end)}
+	 */
+	static HostImplementation name(CharSequence source, int start, int end, int hash) {
+		int slot = (hash ^ hash >>> 16) & (SIZE - 1);
+		HostImplementation pooled = NAMES[slot];
+		if (pooled != null && pooled.hash == hash && pooled.matches(source, start, end)) {
+			return pooled;
+		}
+		HostImplementation created = new HostImplementation(source.subSequence(start, end).toString(), hash);
+		NAMES[slot] = created;
+		return created;
+	}
+
+	/**
+	 * @return the pooled IPv4 address with the packed octets {@code address}
+	 */
+	static IPv4AddressImplementation address(int address) {
+		int slot = (address * 0x9E3779B9) >>> (32 - BITS);
+		IPv4AddressImplementation pooled = ADDRESSES[slot];
+		if (pooled != null && pooled.address == address) {
+			return pooled;
+		}
+		IPv4AddressImplementation created = new IPv4AddressImplementation(address);
+		ADDRESSES[slot] = created;
+		return created;
+	}
+
+}
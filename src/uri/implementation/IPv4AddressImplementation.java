@@ -1,46 +1,103 @@
 package uri.implementation;
 
+import uri.Host;
 import uri.IPv4Address;
 
-// TODO implement this class or another Implementation of IPv4Address
-public class IPv4AddressImplementation extends HostImplementation implements IPv4Address {
+/**
+ * An {@link IPv4Address} stored as a single packed {@code int}, with the
+ * first octet in the highest byte. The parser computes the value while it
+ * scans the host, so neither the octets nor the normalized form ever need
+ * to be parsed from text again. Equality and hashing use that value, so
+ * "001.002.003.004" equals "1.2.3.4".
+ */
+public class IPv4AddressImplementation implements IPv4Address, Comparable<Host> {
+	// "." in a packed dotted form, where a digit is stored as its value
+	private static final int DOT = 10;
 
-	public IPv4AddressImplementation(String host) {
-		super(host);
-		// TODO implement this
+	final int address;
+	// normalized dotted form, created on first use
+	private String text;
+
+	public IPv4AddressImplementation(int address) {
+		this.address = address;
 	}
 
 	@Override
 	public byte[] getOctets() {
-		byte[] octets;
-		if (host.contains(".")) {
-			String[] splitted = host.split("\\."); // Fixed: changed to String array
-			if (splitted.length != 4) {
-				throw new IllegalArgumentException("Invalid IPv4 address: not 4 parts");
+		return new byte[] { (byte) (address >>> 24), (byte) (address >>> 16), (byte) (address >>> 8), (byte) address };
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		return obj instanceof IPv4AddressImplementation && ((IPv4AddressImplementation) obj).address == address;
+	}
+
+	@Override
+	public int hashCode() {
+		return address;
+	}
+
+	@Override
+	public int compareTo(Host other) {
+		return HostImplementation.compare(this, other);
+	}
+
+	@Override
+	public String toString() {
+		String result = text;
+		if (result == null) {
+			long dotted = dotted(address);
+			char[] chars = new char[length(dotted)];
+			for (int i = 0; i < chars.length; i++) {
+				chars[i] = charAt(dotted, i);
+			}
+			result = new String(chars);
+			text = result;
+		}
+		return result;
+	}
+
+	/**
+	 * The normalized dotted form of {@code address}, packed so that every
+	 * writer of it can share this code without a buffer: character {@code i}
+	 * is in the 4 bits at {@code 60 - 4 * i}, a digit as its value and "." as
+	 * 10, and the length, at most 15, is in the lowest 4 bits.
+	 *
+	 * @return the packed form, read with {@link #length(long)} and
+	 *         {@link #charAt(long, int)}
+	 */
+	static long dotted(int address) {
+		long dotted = 0;
+		int length = 0;
+		for (int shift = 24; shift >= 0; shift -= 8) {
+			int octet = address >>> shift & 0xFF;
+			if (octet >= 100) {
+				dotted |= (long) (octet / 100) << (60 - 4 * length++);
 			}
-			octets = new byte[4];
-			for (int i = 0; i < 4; i++) {
-				int value;
-				try {
-					value = Integer.parseInt(splitted[i]);
-				} catch (NumberFormatException e) {
-					throw new IllegalArgumentException("Invalid number."); // Fixed: added semicolon
-				}
-				if (value < 0 || value > 255) {
-					throw new IllegalArgumentException("Octet out of range. Should be between 0 and 255."); // Fixed: added semicolon
-				}
-				octets[i] = (byte) value;
+			if (octet >= 10) {
+				dotted |= (long) (octet / 10 % 10) << (60 - 4 * length++);
+			}
+			dotted |= (long) (octet % 10) << (60 - 4 * length++);
+			if (shift > 0) {
+				dotted |= (long) DOT << (60 - 4 * length++);
 			}
-		} else {
-			throw new IllegalArgumentException("Invalid IPv4 address format: no dots found");
 		}
-		return octets;
+		return dotted | length;
 	}
 
-	@Override
-	public String toString() {
-		byte[] octets = getOctets(); // Fixed: get octets from method call
-		return (octets[0] & 0xFF) + "." + (octets[1] & 0xFF) + "." + (octets[2] & 0xFF) + "." + (octets[3] & 0xFF);
+	/**
+	 * @return the number of characters of a {@link #dotted(int)} form
+	 */
+	static int length(long dotted) {
+		return (int) dotted & 0xF;
+	}
+
+	/**
+	 * @return the character at {@code index} of a {@link #dotted(int)} form
+	 */
+	static char charAt(long dotted, int index) {
+		int symbol = (int) (dotted >>> (60 - 4 * index)) & 0xF;
+		return symbol == DOT ? '.' : (char) ('0' + symbol);
 	}
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,100 @@
+package uri.implementation;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+import uri.Uri;
+
+/**
+ * Splits newline-delimited text into one parsed {@link Uri} per line, in line
+ * order, with {@code null} for lines that are not valid URIs. A line ends at
+ * '\n', and a '\r' just before it is not part of the line.
+ * <p>
+ * The URIs are backed by the text itself, so no line is ever copied. Splits
+ * happen at the line break nearest to the middle of the remaining range,
+ * which keeps the halves balanced in characters rather than in lines.
+ */
+final class LineSpliterator implements Spliterator<Uri> {
+	// below this many characters a range is not worth splitting
+	private static final int MIN_SPLIT = 4096;
+	// rough line length, only used for estimateSize()
+	private static final int AVERAGE_LINE = 64;
+
+	// scans each line, so that its metrics sink sees it
+	private final StatelessUriParserImplementation parser;
+	private final CharSequence text;
+	private int position;
+	private final int end;
+	private UriScanner scanner;
+
+	LineSpliterator(StatelessUriParserImplementation parser, CharSequence text, int start, int end) {
+		this.parser = parser;
+		this.text = text;
+		this.position = start;
+		this.end = end;
+	}
+
+	@Override
+	public boolean tryAdvance(Consumer<? super Uri> action) {
+		if (position >= end) {
+			return false;
+		}
+		if (scanner == null) {
+			scanner = new UriScanner();
+		}
+		action.accept(next());
+		return true;
+	}
+
+	@Override
+	public void forEachRemaining(Consumer<? super Uri> action) {
+		if (scanner == null) {
+			scanner = new UriScanner();
+		}
+		while (position < end) {
+			action.accept(next());
+		}
+	}
+
+	private Uri next() {
+		int lineStart = position;
+		int lineEnd = lineStart;
+		while (lineEnd < end && text.charAt(lineEnd) != '\n') {
+			lineEnd++;
+		}
+		position = lineEnd + 1;
+		if (lineEnd > lineStart && text.charAt(lineEnd - 1) == '\r') {
+			lineEnd--;
+		}
+		return parser.scan(scanner, text, lineStart, lineEnd) ? scanner.toUri(text) : null;
+	}
+
+	@Override
+	public Spliterator<Uri> trySplit() {
+		if (end - position < MIN_SPLIT) {
+			return null;
+		}
+		int split = position + (end - position) / 2;
+		while (split < end && text.charAt(split) != '\n') {
+			split++;
+		}
+		if (split >= end - 1) {
+			return null;
+		}
+		// the prefix keeps the line break, the suffix starts on the next line
+		LineSpliterator prefix = new LineSpliterator(parser, text, position, split + 1);
+		position = split + 1;
+		return prefix;
+	}
+
+	@Override
+	public long estimateSize() {
+		return (end - position + AVERAGE_LINE - 1) / AVERAGE_LINE;
+	}
+
+	@Override
+	public int characteristics() {
+		return ORDERED | IMMUTABLE;
+	}
+
+}
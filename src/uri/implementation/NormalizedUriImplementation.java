@@ -0,0 +1,25 @@
+package uri.implementation;
+
+import uri.NormalizedUri;
+
+/**
+ * A {@link UriImplementation} in normal form, created by
+ * {@link UriNormalizer}, which also computed its fingerprint.
+ */
+final class NormalizedUriImplementation extends UriImplementation implements NormalizedUri {
+	private final long fingerprint;
+
+	NormalizedUriImplementation(CharSequence source, int start, int schemeEnd, int userInfoEnd, int hostEnd,
+			int pathStart, int pathEnd, int segmentCount, int queryStart, int end, boolean ipv4, int address,
+			int hostHash, int hash, long schemeHash64, long hostHash64, long pathHash64, long hash64,
+			long fingerprint) {
+		super(source, start, schemeEnd, userInfoEnd, hostEnd, pathStart, pathEnd, segmentCount, queryStart, end, ipv4,
+				address, hostHash, hash, schemeHash64, hostHash64, pathHash64, hash64);
+		this.fingerprint = fingerprint;
+	}
+
+	@Override
+	public long getFingerprint() {
+		return fingerprint;
+	}
+}
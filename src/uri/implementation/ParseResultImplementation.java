@@ -0,0 +1,55 @@
+package uri.implementation;
+
+import uri.ParseError;
+import uri.ParseResult;
+import uri.ParsedUri;
+
+/**
+ * The {@link ParseResult}, holding either a URI or an error.
+ */
+final class ParseResultImplementation implements ParseResult {
+	static final ParseResult NULL_INPUT = new ParseResultImplementation(null, ParseError.NULL_INPUT, 0);
+
+	private final ParsedUri uri;
+	private final ParseError error;
+	private final int errorOffset;
+
+	private ParseResultImplementation(ParsedUri uri, ParseError error, int errorOffset) {
+		this.uri = uri;
+		this.error = error;
+		this.errorOffset = errorOffset;
+	}
+
+	static ParseResult valid(ParsedUri uri) {
+		return new ParseResultImplementation(uri, null, -1);
+	}
+
+	static ParseResult error(ParseError error, int offset) {
+		return new ParseResultImplementation(null, error, offset);
+	}
+
+	@Override
+	public boolean isValid() {
+		return uri != null;
+	}
+
+	@Override
+	public ParsedUri getUri() {
+		return uri;
+	}
+
+	@Override
+	public ParseError getError() {
+		return error;
+	}
+
+	@Override
+	public int getErrorOffset() {
+		return errorOffset;
+	}
+
+	@Override
+	public String toString() {
+		return uri != null ? "valid" : error + " at " + errorOffset;
+	}
+}
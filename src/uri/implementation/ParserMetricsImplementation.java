@@ -0,0 +1,178 @@
+package uri.implementation;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import uri.ParseError;
+import uri.ParserMetrics;
+import uri.ParserMetricsMXBean;
+
+/**
+ * The {@link ParserMetrics}, one {@link LongAdder} per counter and per
+ * histogram bucket.
+ * <p>
+ * The histogram is log-linear like an HdrHistogram with 16 sub-buckets:
+ * latencies below 32 ns get a bucket each, and every further power of two is
+ * split into 16 buckets of equal width. The bucket of a latency is found with
+ * a leading-zero count and a shift, so recording costs no search.
+ */
+// implements ParserMetricsMXBean again since JMX only looks at the direct
+// interfaces of a class
+public class ParserMetricsImplementation implements ParserMetrics, ParserMetricsMXBean {
+	private static final int SUB_BUCKET_BITS = 4;
+	private static final long MAX_LATENCY = (1L << 40) - 1;
+	private static final int BUCKETS = bucket(MAX_LATENCY) + 1;
+	private static final ParseError[] ERRORS = ParseError.values();
+
+	private final LongAdder parsed = new LongAdder();
+	private final LongAdder[] rejected = new LongAdder[ERRORS.length];
+	private final LongAdder characters = new LongAdder();
+	private final LongAdder[] latencies = new LongAdder[BUCKETS];
+	private final LongAccumulator maxLatency = new LongAccumulator(Math::max, 0);
+
+	public ParserMetricsImplementation() {
+		for (int i = 0; i < rejected.length; i++) {
+			rejected[i] = new LongAdder();
+		}
+		for (int i = 0; i < latencies.length; i++) {
+			latencies[i] = new LongAdder();
+		}
+	}
+
+	@Override
+	public void parsed(int length, long nanos) {
+		parsed.increment();
+		record(length, nanos);
+	}
+
+	@Override
+	public void rejected(ParseError error, int length, long nanos) {
+		rejected[error.ordinal()].increment();
+		record(length, nanos);
+	}
+
+	private void record(int length, long nanos) {
+		characters.add(length);
+		// nanoTime() is not guaranteed to be monotonic on every platform
+		long latency = Math.min(Math.max(nanos, 0), MAX_LATENCY);
+		latencies[bucket(latency)].increment();
+		maxLatency.accumulate(latency);
+	}
+
+	@Override
+	public long getParsedCount() {
+		return parsed.sum();
+	}
+
+	@Override
+	public long getRejectedCount() {
+		long sum = 0;
+		for (LongAdder count : rejected) {
+			sum += count.sum();
+		}
+		return sum;
+	}
+
+	@Override
+	public long getRejectedCount(ParseError error) {
+		return rejected[error.ordinal()].sum();
+	}
+
+	@Override
+	public Map<String, Long> getRejectedCounts() {
+		Map<String, Long> counts = new LinkedHashMap<>();
+		for (ParseError error : ERRORS) {
+			counts.put(error.name(), rejected[error.ordinal()].sum());
+		}
+		return counts;
+	}
+
+	@Override
+	public long getCharacterCount() {
+		return characters.sum();
+	}
+
+	@Override
+	public long getLatencyMedian() {
+		return getLatencyPercentile(50);
+	}
+
+	@Override
+	public long getLatency99thPercentile() {
+		return getLatencyPercentile(99);
+	}
+
+	@Override
+	public long getLatency999thPercentile() {
+		return getLatencyPercentile(99.9);
+	}
+
+	@Override
+	public long getMaxLatency() {
+		return maxLatency.get();
+	}
+
+	@Override
+	public long getLatencyPercentile(double percentile) {
+		if (!(percentile >= 0 && percentile <= 100)) {
+			throw new IllegalArgumentException("percentile must be between 0 and 100: " + percentile);
+		}
+		long[] counts = new long[BUCKETS];
+		long total = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			counts[i] = latencies[i].sum();
+			total += counts[i];
+		}
+		if (total == 0) {
+			return 0;
+		}
+		long rank = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+		long seen = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			seen += counts[i];
+			if (seen >= rank) {
+				// the bucket's upper end, but no more than was ever recorded
+				return Math.min(highestValue(i), maxLatency.get());
+			}
+		}
+		return maxLatency.get();
+	}
+
+	@Override
+	public void reset() {
+		parsed.reset();
+		for (LongAdder count : rejected) {
+			count.reset();
+		}
+		characters.reset();
+		for (LongAdder count : latencies) {
+			count.reset();
+		}
+		maxLatency.reset();
+	}
+
+	@Override
+	public String toString() {
+		return "ParserMetrics[parsed=" + getParsedCount() + ", rejected=" + getRejectedCount() + ", median="
+				+ getLatencyMedian() + "ns, p99=" + getLatency99thPercentile() + "ns, max=" + getMaxLatency() + "ns]";
+	}
+
+	/**
+	 * @return the bucket of a latency between 0 and {@link #MAX_LATENCY}
+	 */
+	static int bucket(long latency) {
+		int shift = Math.max(0, 63 - Long.numberOfLeadingZeros(latency) - SUB_BUCKET_BITS);
+		return (shift << SUB_BUCKET_BITS) + (int) (latency >>> shift);
+	}
+
+	/**
+	 * @return the largest latency that falls into {@code bucket}
+	 */
+	static long highestValue(int bucket) {
+		int shift = Math.max(0, (bucket >>> SUB_BUCKET_BITS) - 1);
+		long lowest = (long) (bucket - (shift << SUB_BUCKET_BITS)) << shift;
+		return lowest + (1L << shift) - 1;
+	}
+}
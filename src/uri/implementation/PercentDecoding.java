@@ -0,0 +1,67 @@
+package uri.implementation;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Decodes the "pct-encoded" triplets of a validated component.
+ * <p>
+ * Every character the grammar admits is ASCII, so a component decodes into
+ * at most as many bytes as it has characters, which are then read as UTF-8.
+ * Hex digits are looked up in a table instead of being parsed.
+ */
+final class PercentDecoding {
+
+	// the value of each hex digit, indexed by the character
+	private static final byte[] HEX_VALUE = new byte[128];
+
+	static {
+		for (char c = '0'; c <= '9'; c++) {
+			HEX_VALUE[c] = (byte) (c - '0');
+		}
+		for (char c = 'a'; c <= 'f'; c++) {
+			HEX_VALUE[c] = (byte) (c - 'a' + 10);
+			HEX_VALUE[c - 'a' + 'A'] = (byte) (c - 'a' + 10);
+		}
+	}
+
+	private PercentDecoding() {
+	}
+
+	/**
+	 * @return the byte encoded by the valid triplet whose {@code '%'} is at
+	 *         {@code index}
+	 */
+	static int valueAt(CharSequence input, int index) {
+		return HEX_VALUE[input.charAt(index + 1)] << 4 | HEX_VALUE[input.charAt(index + 2)];
+	}
+
+	/**
+	 * @param raw
+	 *            a component as accepted by {@link UriScanner}, so every
+	 *            {@code '%'} starts a valid triplet
+	 * @return the decoded component, or {@code raw} itself if it contains no
+	 *         {@code '%'}
+	 */
+	static String decode(String raw) {
+		int index = raw.indexOf('%');
+		if (index < 0) {
+			return raw;
+		}
+		byte[] bytes = new byte[raw.length()];
+		int length = 0;
+		for (int i = 0; i < index; i++) {
+			bytes[length++] = (byte) raw.charAt(i);
+		}
+		while (index < raw.length()) {
+			char c = raw.charAt(index);
+			if (c == '%') {
+				bytes[length++] = (byte) (HEX_VALUE[raw.charAt(index + 1)] << 4 | HEX_VALUE[raw.charAt(index + 2)]);
+				index += 3;
+			} else {
+				bytes[length++] = (byte) c;
+				index++;
+			}
+		}
+		return new String(bytes, 0, length, StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,122 @@
+package uri.implementation;
+
+import java.util.NoSuchElementException;
+
+import uri.QueryCursor;
+
+/**
+ * The {@link QueryCursor} over {@code source[queryStart, end)}. Positions are
+ * kept as indices into the source and only translated to query offsets by
+ * the getters.
+ */
+final class QueryCursorImplementation implements QueryCursor {
+	private final CharSequence source;
+	private final int queryStart;
+	private final int end;
+
+	// the current parameter, nameStart is -1 before the first next()
+	private int nameStart = -1;
+	private int nameEnd;
+	private int parameterEnd;
+
+	QueryCursorImplementation(CharSequence source, int queryStart, int end) {
+		this.source = source;
+		this.queryStart = queryStart;
+		this.end = end;
+	}
+
+	@Override
+	public boolean next() {
+		int index = nameStart < 0 ? queryStart : parameterEnd;
+		while (index < end && source.charAt(index) == '&') {
+			index++;
+		}
+		if (index == end) {
+			nameStart = parameterEnd = nameEnd = end;
+			return false;
+		}
+		nameStart = index;
+		nameEnd = -1;
+		while (index < end) {
+			char c = source.charAt(index);
+			if (c == '&') {
+				break;
+			}
+			if (c == '=' && nameEnd < 0) {
+				nameEnd = index;
+			}
+			index++;
+		}
+		parameterEnd = index;
+		if (nameEnd < 0) {
+			nameEnd = index;
+		}
+		return true;
+	}
+
+	private void checkCurrent() {
+		if (nameStart < 0 || nameStart == end) {
+			throw new NoSuchElementException("no current parameter");
+		}
+	}
+
+	@Override
+	public int getNameStart() {
+		checkCurrent();
+		return nameStart - queryStart;
+	}
+
+	@Override
+	public int getNameEnd() {
+		checkCurrent();
+		return nameEnd - queryStart;
+	}
+
+	@Override
+	public boolean hasValue() {
+		checkCurrent();
+		return nameEnd < parameterEnd;
+	}
+
+	@Override
+	public int getValueStart() {
+		checkCurrent();
+		return valueStart() - queryStart;
+	}
+
+	@Override
+	public int getValueEnd() {
+		checkCurrent();
+		return parameterEnd - queryStart;
+	}
+
+	private int valueStart() {
+		return nameEnd < parameterEnd ? nameEnd + 1 : parameterEnd;
+	}
+
+	@Override
+	public boolean nameEquals(CharSequence name) {
+		checkCurrent();
+		if (name.length() != nameEnd - nameStart) {
+			return false;
+		}
+		for (int i = 0; i < name.length(); i++) {
+			if (name.charAt(i) != source.charAt(nameStart + i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public String getName() {
+		checkCurrent();
+		return source.subSequence(nameStart, nameEnd).toString();
+	}
+
+	@Override
+	public String getValue() {
+		checkCurrent();
+		return source.subSequence(valueStart(), parameterEnd).toString();
+	}
+}
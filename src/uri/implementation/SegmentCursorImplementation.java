@@ -0,0 +1,81 @@
+package uri.implementation;
+
+import java.util.NoSuchElementException;
+
+import uri.SegmentCursor;
+
+/**
+ * The {@link SegmentCursor} over the path {@code source[pathStart, pathEnd)}.
+ * Positions are kept as indices into the source and only translated to path
+ * offsets by the getters.
+ */
+final class SegmentCursorImplementation implements SegmentCursor {
+	private final CharSequence source;
+	private final int pathStart;
+	private final int pathEnd;
+
+	// the current segment, start is -1 before the first next() and end is
+	// past pathEnd once there are no more segments
+	private int start = -1;
+	private int end = -1;
+
+	SegmentCursorImplementation(CharSequence source, int pathStart, int pathEnd) {
+		this.source = source;
+		this.pathStart = pathStart;
+		this.pathEnd = pathEnd;
+	}
+
+	@Override
+	public boolean next() {
+		int index = start < 0 ? pathStart : end + 1;
+		// an empty path has no segments, otherwise the last one ends at pathEnd
+		if (index > pathEnd || pathStart == pathEnd) {
+			start = end = pathEnd + 1;
+			return false;
+		}
+		start = index;
+		while (index < pathEnd && source.charAt(index) != '/') {
+			index++;
+		}
+		end = index;
+		return true;
+	}
+
+	private void checkCurrent() {
+		if (start < 0 || start > pathEnd) {
+			throw new NoSuchElementException("no current segment");
+		}
+	}
+
+	@Override
+	public int getStart() {
+		checkCurrent();
+		return start - pathStart;
+	}
+
+	@Override
+	public int getEnd() {
+		checkCurrent();
+		return end - pathStart;
+	}
+
+	@Override
+	public boolean segmentEquals(CharSequence segment) {
+		checkCurrent();
+		if (segment.length() != end - start) {
+			return false;
+		}
+		for (int i = 0; i < segment.length(); i++) {
+			if (segment.charAt(i) != source.charAt(start + i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public String getSegment() {
+		checkCurrent();
+		return source.subSequence(start, end).toString();
+	}
+}
@@ -0,0 +1,237 @@
+package uri.implementation;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import uri.NormalizedUri;
+import uri.ParseError;
+import uri.ParseResult;
+import uri.ParsedUri;
+import uri.ParserMetricsSink;
+import uri.StatelessUriParser;
+import uri.Uri;
+import uri.UriBatch;
+
+/**
+ * The {@link StatelessUriParser}. Scans run on a {@link UriScanner} owned by
+ * the calling thread, so the single {@link #INSTANCE} can be used by any
+ * number of threads at once and a parse allocates nothing but its result.
+ * <p>
+ * A parser with a {@link ParserMetricsSink} times every scan and reports its
+ * outcome; {@link #INSTANCE} has none and only pays for a {@code null} check.
+ */
+public final class StatelessUriParserImplementation implements StatelessUriParser {
+
+	public static final StatelessUriParserImplementation INSTANCE = new StatelessUriParserImplementation(null);
+
+	// parallel ranges below this size cost more to schedule than to parse
+	private static final int MIN_PARALLEL_RANGE = 256;
+
+	// also validates the components of URIs derived by UriImplementation
+	static final ThreadLocal<UriScanner> SCANNER = ThreadLocal.withInitial(UriScanner::new);
+	private static final ThreadLocal<UriNormalizer> NORMALIZER = ThreadLocal.withInitial(UriNormalizer::new);
+
+	private final ParserMetricsSink sink;
+
+	/**
+	 * @param sink
+	 *            receives the outcome and duration of every scan, or
+	 *            {@code null} to measure nothing
+	 */
+	public StatelessUriParserImplementation(ParserMetricsSink sink) {
+		this.sink = sink;
+	}
+
+	@Override
+	public ParsedUri parse(CharSequence uri) {
+		return parse(SCANNER.get(), uri);
+	}
+
+	@Override
+	public ParseResult tryParse(CharSequence uri) {
+		UriScanner scanner = SCANNER.get();
+		if (!scan(scanner, uri)) {
+			return uri == null ? ParseResultImplementation.NULL_INPUT
+					: ParseResultImplementation.error(scanner.error, scanner.errorOffset);
+		}
+		return ParseResultImplementation.valid(scanner.toUri(uri));
+	}
+
+	@Override
+	public NormalizedUri parseNormalized(CharSequence uri) {
+		UriScanner scanner = SCANNER.get();
+		if (!scan(scanner, uri)) {
+			return null;
+		}
+		return NORMALIZER.get().normalize(scanner, uri);
+	}
+
+	@Override
+	public ParsedUri parseBytes(byte[] uri, int offset, int length) {
+		if (uri == null) {
+			return null;
+		}
+		return parseBytes(ByteBuffer.wrap(uri, offset, length));
+	}
+
+	@Override
+	public ParsedUri parseBytes(ByteBuffer uri) {
+		if (uri == null) {
+			return null;
+		}
+		AsciiSequence bytes = new AsciiSequence(uri, uri.position(), uri.limit());
+		UriScanner scanner = SCANNER.get();
+		if (!scan(scanner, bytes)) {
+			return null;
+		}
+		return scanner.toCopiedUri(bytes.subSequence(0, bytes.length()));
+	}
+
+	@Override
+	public int parseAll(CharSequence[] uris, Uri[] results) {
+		checkResults(uris.length, results);
+		UriScanner scanner = SCANNER.get();
+		int valid = 0;
+		for (int i = 0; i < uris.length; i++) {
+			results[i] = parse(scanner, uris[i]);
+			if (results[i] != null) {
+				valid++;
+			}
+		}
+		return valid;
+	}
+
+	@Override
+	public int parseAll(List<? extends CharSequence> uris, Uri[] results) {
+		checkResults(uris.size(), results);
+		UriScanner scanner = SCANNER.get();
+		int valid = 0;
+		int i = 0;
+		for (CharSequence uri : uris) {
+			results[i] = parse(scanner, uri);
+			if (results[i] != null) {
+				valid++;
+			}
+			i++;
+		}
+		return valid;
+	}
+
+	@Override
+	public UriBatch parseAll(Stream<? extends CharSequence> uris) {
+		UriScanner scanner = SCANNER.get();
+		UriBatchImplementation batch = new UriBatchImplementation(16);
+		uris.sequential().forEachOrdered(uri -> batch.add(scanner, uri, scan(scanner, uri)));
+		return batch;
+	}
+
+	@Override
+	public int parseAll(CharSequence[] uris, Uri[] results, ForkJoinPool pool) {
+		checkResults(uris.length, results);
+		// a few ranges per worker so that stealing can even out slow ranges
+		int leafSize = Math.max(MIN_PARALLEL_RANGE, uris.length / (pool.getParallelism() * 8));
+		return pool.invoke(new ParseTask(this, uris, results, 0, uris.length, leafSize));
+	}
+
+	@Override
+	public Stream<Uri> parseLines(CharSequence text) {
+		return StreamSupport.stream(new LineSpliterator(this, text, 0, text.length()), false);
+	}
+
+	/**
+	 * Parses {@code uris[from, to)} into the same indices of {@code results},
+	 * halving the range until it is at most {@code leafSize} long.
+	 */
+	private static final class ParseTask extends RecursiveTask<Integer> {
+		private static final long serialVersionUID = 1L;
+
+		private final StatelessUriParserImplementation parser;
+		private final CharSequence[] uris;
+		private final Uri[] results;
+		private final int from;
+		private final int to;
+		private final int leafSize;
+
+		ParseTask(StatelessUriParserImplementation parser, CharSequence[] uris, Uri[] results, int from, int to,
+				int leafSize) {
+			this.parser = parser;
+			this.uris = uris;
+			this.results = results;
+			this.from = from;
+			this.to = to;
+			this.leafSize = leafSize;
+		}
+
+		@Override
+		protected Integer compute() {
+			if (to - from <= leafSize) {
+				UriScanner scanner = SCANNER.get();
+				int valid = 0;
+				for (int i = from; i < to; i++) {
+					results[i] = parser.parse(scanner, uris[i]);
+					if (results[i] != null) {
+						valid++;
+					}
+				}
+				return valid;
+			}
+			int middle = (from + to) >>> 1;
+			ParseTask left = new ParseTask(parser, uris, results, from, middle, leafSize);
+			left.fork();
+			int right = new ParseTask(parser, uris, results, middle, to, leafSize).compute();
+			return left.join() + right;
+		}
+	}
+
+	private UriImplementation parse(UriScanner scanner, CharSequence uri) {
+		if (!scan(scanner, uri)) {
+			return null;
+		}
+		return scanner.toUri(uri);
+	}
+
+	/**
+	 * Like {@link #scan(UriScanner, CharSequence, int, int)} for all of
+	 * {@code uri}, which may be {@code null}.
+	 */
+	private boolean scan(UriScanner scanner, CharSequence uri) {
+		if (uri == null) {
+			if (sink != null) {
+				sink.rejected(ParseError.NULL_INPUT, 0, 0);
+			}
+			return false;
+		}
+		return scan(scanner, uri, 0, uri.length());
+	}
+
+	/**
+	 * Scans {@code uri[from, to)} with {@code scanner} and reports the outcome
+	 * to the sink, if there is one.
+	 *
+	 * @return whether the range is a valid URI
+	 */
+	boolean scan(UriScanner scanner, CharSequence uri, int from, int to) {
+		if (sink == null) {
+			return scanner.scan(uri, from, to);
+		}
+		long start = System.nanoTime();
+		boolean valid = scanner.scan(uri, from, to);
+		long nanos = System.nanoTime() - start;
+		if (valid) {
+			sink.parsed(to - from, nanos);
+		} else {
+			sink.rejected(scanner.error, to - from, nanos);
+		}
+		return valid;
+	}
+
+	private static void checkResults(int count, Uri[] results) {
+		if (results.length < count) {
+			throw new IllegalArgumentException("results has " + results.length + " elements, needs " + count);
+		}
+	}
+}
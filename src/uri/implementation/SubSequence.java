@@ -0,0 +1,46 @@
+package uri.implementation;
+
+/**
+ * A {@link CharSequence} view of a range of another one. Instances can be
+ * moved to a new range with {@link #set}, which lets a caller hand out views
+ * of many components without allocating one per component.
+ */
+final class SubSequence implements CharSequence {
+	private CharSequence source;
+	private int start;
+	private int end;
+
+	SubSequence set(CharSequence source, int start, int end) {
+		this.source = source;
+		this.start = start;
+		this.end = end;
+		return this;
+	}
+
+	@Override
+	public int length() {
+		return end - start;
+	}
+
+	@Override
+	public char charAt(int index) {
+		if (index < 0 || index >= end - start) {
+			throw new IndexOutOfBoundsException("index " + index + ", length " + (end - start));
+		}
+		return source.charAt(start + index);
+	}
+
+	@Override
+	public CharSequence subSequence(int from, int to) {
+		if (from < 0 || from > to || to > end - start) {
+			throw new IndexOutOfBoundsException("from " + from + ", to " + to + ", length " + (end - start));
+		}
+		return source.subSequence(start + from, start + to);
+	}
+
+	@Override
+	public String toString() {
+		return source.subSequence(start, end).toString();
+	}
+
+}
@@ -0,0 +1,144 @@
+package uri.implementation;
+
+import java.util.Arrays;
+
+import uri.ParsedUri;
+import uri.UriBatch;
+
+/**
+ * A {@link UriBatch} that grows its columns as inputs are added. Filled by a
+ * single thread, and read-only once handed out.
+ */
+public class UriBatchImplementation implements UriBatch {
+	private static final byte VALID = 1;
+	private static final byte IPV4 = 2;
+
+	private CharSequence[] inputs;
+	private byte[] flags;
+	private int[] schemeEnd;
+	private int[] userInfoEnd;
+	private int[] hostEnd;
+	private int[] pathStart;
+	private int[] pathEnd;
+	private int[] queryStart;
+	private int[] address;
+	private int[] segmentCount;
+	private int[] hostHash;
+	private int[] hash;
+	private long[] schemeHash64;
+	private long[] hostHash64;
+	private long[] pathHash64;
+	private long[] hash64;
+	private int size;
+	private int validCount;
+
+	UriBatchImplementation(int capacity) {
+		capacity = Math.max(capacity, 16);
+		inputs = new CharSequence[capacity];
+		flags = new byte[capacity];
+		schemeEnd = new int[capacity];
+		userInfoEnd = new int[capacity];
+		hostEnd = new int[capacity];
+		pathStart = new int[capacity];
+		pathEnd = new int[capacity];
+		queryStart = new int[capacity];
+		address = new int[capacity];
+		segmentCount = new int[capacity];
+		hostHash = new int[capacity];
+		hash = new int[capacity];
+		schemeHash64 = new long[capacity];
+		hostHash64 = new long[capacity];
+		pathHash64 = new long[capacity];
+		hash64 = new long[capacity];
+	}
+
+	/**
+	 * Appends the result of scanning all of {@code input} with
+	 * {@code scanner}, which has just been done, as a new entry; a
+	 * {@code null} input is appended as an invalid entry.
+	 *
+	 * @param valid
+	 *            whether the scan accepted {@code input}
+	 */
+	void add(UriScanner scanner, CharSequence input, boolean valid) {
+		if (size == inputs.length) {
+			grow();
+		}
+		int index = size++;
+		inputs[index] = input;
+		if (!valid) {
+			return;
+		}
+		flags[index] = scanner.ipv4 ? VALID | IPV4 : VALID;
+		schemeEnd[index] = scanner.schemeEnd;
+		userInfoEnd[index] = scanner.userInfoEnd;
+		hostEnd[index] = scanner.hostEnd;
+		pathStart[index] = scanner.pathStart;
+		pathEnd[index] = scanner.pathEnd;
+		queryStart[index] = scanner.queryStart;
+		address[index] = scanner.address;
+		segmentCount[index] = scanner.segmentCount;
+		hostHash[index] = scanner.hostHash;
+		hash[index] = scanner.hash;
+		schemeHash64[index] = scanner.schemeHash64;
+		hostHash64[index] = scanner.hostHash64;
+		pathHash64[index] = scanner.pathHash64;
+		hash64[index] = scanner.hash64;
+		validCount++;
+	}
+
+	private void grow() {
+		int capacity = inputs.length * 2;
+		inputs = Arrays.copyOf(inputs, capacity);
+		flags = Arrays.copyOf(flags, capacity);
+		schemeEnd = Arrays.copyOf(schemeEnd, capacity);
+		userInfoEnd = Arrays.copyOf(userInfoEnd, capacity);
+		hostEnd = Arrays.copyOf(hostEnd, capacity);
+		pathStart = Arrays.copyOf(pathStart, capacity);
+		pathEnd = Arrays.copyOf(pathEnd, capacity);
+		queryStart = Arrays.copyOf(queryStart, capacity);
+		address = Arrays.copyOf(address, capacity);
+		segmentCount = Arrays.copyOf(segmentCount, capacity);
+		hostHash = Arrays.copyOf(hostHash, capacity);
+		hash = Arrays.copyOf(hash, capacity);
+		schemeHash64 = Arrays.copyOf(schemeHash64, capacity);
+		hostHash64 = Arrays.copyOf(hostHash64, capacity);
+		pathHash64 = Arrays.copyOf(pathHash64, capacity);
+		hash64 = Arrays.copyOf(hash64, capacity);
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public int validCount() {
+		return validCount;
+	}
+
+	@Override
+	public boolean isValid(int index) {
+		checkIndex(index);
+		return (flags[index] & VALID) != 0;
+	}
+
+	@Override
+	public ParsedUri get(int index) {
+		if (!isValid(index)) {
+			return null;
+		}
+		CharSequence input = inputs[index];
+		return new UriImplementation(input, 0, schemeEnd[index], userInfoEnd[index], hostEnd[index], pathStart[index],
+				pathEnd[index], segmentCount[index], queryStart[index], input.length(), (flags[index] & IPV4) != 0,
+				address[index], hostHash[index], hash[index], schemeHash64[index], hostHash64[index], pathHash64[index],
+				hash64[index]);
+	}
+
+	private void checkIndex(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+	}
+
+}
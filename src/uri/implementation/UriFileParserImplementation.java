@@ -0,0 +1,213 @@
+package uri.implementation;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+
+import uri.ParsedUri;
+import uri.ParserMetricsSink;
+import uri.UriFileParser;
+import uri.UriRecord;
+
+/**
+ * A {@link UriFileParser} that maps the file into memory window by window
+ * and scans the bytes in place through an {@link AsciiSequence}. A window
+ * ends after its last line break, so lines are never split between windows,
+ * unless a single line is longer than a whole window.
+ * <p>
+ * One {@link UriScanner}, one record and its component views are reused for
+ * every line, so visiting a line allocates nothing on the heap. Lines are
+ * scanned through a {@link StatelessUriParserImplementation}, which reports
+ * them to its metrics sink, if it has one.
+ */
+public class UriFileParserImplementation implements UriFileParser {
+	// a MappedByteBuffer is indexed by int, so windows stay well below 2 GiB
+	static final int MAX_WINDOW = 1 << 30;
+
+	final Path file;
+	private final StatelessUriParserImplementation parser;
+	private final int windowSize;
+	private long validCount;
+	private long invalidCount;
+
+	public UriFileParserImplementation(Path file) {
+		this(file, StatelessUriParserImplementation.INSTANCE, MAX_WINDOW);
+	}
+
+	/**
+	 * @param sink
+	 *            receives the outcome and duration of every line's scan, or
+	 *            {@code null} to measure nothing
+	 */
+	public UriFileParserImplementation(Path file, ParserMetricsSink sink) {
+		this(file, sink == null ? StatelessUriParserImplementation.INSTANCE : new StatelessUriParserImplementation(sink),
+				MAX_WINDOW);
+	}
+
+	/**
+	 * @param windowSize
+	 *            the number of bytes mapped at a time, between 1 and
+	 *            {@link #MAX_WINDOW}; small ones let tests move lines across
+	 *            window boundaries
+	 */
+	public UriFileParserImplementation(Path file, int windowSize) {
+		this(file, StatelessUriParserImplementation.INSTANCE, windowSize);
+		if (windowSize < 1 || windowSize > MAX_WINDOW) {
+			throw new IllegalArgumentException("windowSize must be between 1 and " + MAX_WINDOW + ": " + windowSize);
+		}
+	}
+
+	UriFileParserImplementation(Path file, StatelessUriParserImplementation parser, int windowSize) {
+		this.file = file;
+		this.parser = parser;
+		this.windowSize = windowSize;
+	}
+
+	@Override
+	public void forEach(Consumer<? super UriRecord> action) throws IOException {
+		validCount = 0;
+		invalidCount = 0;
+		UriScanner scanner = new UriScanner();
+		MappedRecord record = new MappedRecord(scanner);
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			long size = channel.size();
+			long position = 0;
+			while (position < size) {
+				int length = (int) Math.min(size - position, windowSize);
+				MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+				int limit = length;
+				if (position + length < size) {
+					int last = length - 1;
+					while (last >= 0 && buffer.get(last) != '\n') {
+						last--;
+					}
+					if (last >= 0) {
+						limit = last + 1;
+					}
+				}
+				AsciiSequence text = new AsciiSequence(buffer, 0, limit);
+				int lineStart = 0;
+				while (lineStart < limit) {
+					int lineEnd = lineStart;
+					while (lineEnd < limit && buffer.get(lineEnd) != '\n') {
+						lineEnd++;
+					}
+					int next = lineEnd + 1;
+					if (lineEnd > lineStart && buffer.get(lineEnd - 1) == '\r') {
+						lineEnd--;
+					}
+					boolean valid = parser.scan(scanner, text, lineStart, lineEnd);
+					if (valid) {
+						validCount++;
+					} else {
+						invalidCount++;
+					}
+					record.set(text, position + lineStart, lineStart, lineEnd, valid);
+					action.accept(record);
+					lineStart = next;
+				}
+				position += limit;
+			}
+		}
+	}
+
+	@Override
+	public long getValidCount() {
+		return validCount;
+	}
+
+	@Override
+	public long getInvalidCount() {
+		return invalidCount;
+	}
+
+	/**
+	 * The {@link UriRecord} of the current line. Its boundaries are those of
+	 * the scanner, which is only valid until the next line is scanned.
+	 */
+	private static final class MappedRecord implements UriRecord {
+		private final UriScanner scanner;
+		private final SubSequence scheme = new SubSequence();
+		private final SubSequence userInfo = new SubSequence();
+		private final SubSequence host = new SubSequence();
+		private final SubSequence path = new SubSequence();
+		private final SubSequence query = new SubSequence();
+		private CharSequence text;
+		private long position;
+		private int lineStart;
+		private int lineEnd;
+		private boolean valid;
+
+		MappedRecord(UriScanner scanner) {
+			this.scanner = scanner;
+		}
+
+		void set(CharSequence text, long position, int lineStart, int lineEnd, boolean valid) {
+			this.text = text;
+			this.position = position;
+			this.lineStart = lineStart;
+			this.lineEnd = lineEnd;
+			this.valid = valid;
+		}
+
+		@Override
+		public long getPosition() {
+			return position;
+		}
+
+		@Override
+		public int getLength() {
+			return lineEnd - lineStart;
+		}
+
+		@Override
+		public boolean isValid() {
+			return valid;
+		}
+
+		@Override
+		public CharSequence getScheme() {
+			return valid ? scheme.set(text, scanner.start, scanner.schemeEnd) : null;
+		}
+
+		@Override
+		public CharSequence getUserInfo() {
+			if (!valid || scanner.userInfoEnd <= scanner.authorityStart()) {
+				return null;
+			}
+			return userInfo.set(text, scanner.authorityStart(), scanner.userInfoEnd);
+		}
+
+		@Override
+		public CharSequence getHost() {
+			return valid ? host.set(text, scanner.hostStart(), scanner.hostEnd) : null;
+		}
+
+		@Override
+		public boolean isIPv4Address() {
+			return valid && scanner.ipv4;
+		}
+
+		@Override
+		public CharSequence getPath() {
+			return valid ? path.set(text, scanner.pathStart, scanner.pathEnd) : null;
+		}
+
+		@Override
+		public CharSequence getQuery() {
+			if (!valid || scanner.queryStart < 0 || scanner.queryStart == scanner.end) {
+				return null;
+			}
+			return query.set(text, scanner.queryStart, scanner.end);
+		}
+
+		@Override
+		public ParsedUri toUri() {
+			return valid ? scanner.toCopiedUri(text.subSequence(lineStart, lineEnd)) : null;
+		}
+	}
+
+}
@@ -1,95 +1,777 @@
 package uri.implementation;
 
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 import uri.Host;
+import uri.ParseError;
+import uri.ParsedUri;
+import uri.QueryCursor;
+import uri.SegmentCursor;
 import uri.Uri;
 
 
-// TODO implement this class or another implementation of Uri
-public class UriImplementation implements Uri {
-	String scheme;
-	String query;
-	String userInfo;
-	String host;
-	String path;
+/**
+ * An immutable {@link Uri} that refers to the text it was parsed from by
+ * offsets instead of holding a copy of every component.
+ * <p>
+ * Components have already been validated by
+ * {@link StatelessUriParserImplementation}. Their Strings and the {@link Host}
+ * are only created when a getter asks for them and are cached afterwards;
+ * hosts come from the shared {@link HostPool}. The caches are filled racily:
+ * two threads may both create an equal value, but either result is correct,
+ * so no synchronization is needed. Decoded components are cached the same
+ * way. The source must not be modified while the instance is in use.
+ * <p>
+ * A URI derived by a {@code with} method gets a new source holding the copied
+ * text, and starts out with the caches of this one for the components it
+ * shares with it.
+ */
+public class UriImplementation implements ParsedUri {
+	// the components a derived URI can replace, in the order they are written
+	private static final int SCHEME = 0;
+	private static final int USER_INFO = 1;
+	private static final int HOST = 2;
+	private static final int PATH = 3;
+	private static final int QUERY = 4;
+	// the query with a parameter appended, which leaves the rest unscanned
+	private static final int PARAMETER = 5;
+
+	final CharSequence source;
+
+	// scheme = source[start, schemeEnd), authority starts at schemeEnd + 3
+	final int start;
+	final int schemeEnd;
+	// index of the '@' or -1 if there is no userinfo
+	final int userInfoEnd;
+	final int hostEnd;
+	// path = source[pathStart, pathEnd), without the '/' that ends the authority
+	final int pathStart;
+	final int pathEnd;
+	// the number of '/' separated segments of the path, 0 if it is empty
+	final int segmentCount;
+	// index after the '?' or -1 if there is no query
+	final int queryStart;
+	final int end;
+	final boolean ipv4;
+	// the octets of an IPv4address host, first octet in the highest byte
+	final int address;
+	// hashCode() of the host and of this URI, computed by the scan
+	final int hostHash;
+	final int hash;
+	// the Hash64 states of some components and of this URI, also from the scan
+	final long schemeHash64;
+	final long hostHash64;
+	final long pathHash64;
+	final long hash64;
+
+	private String scheme;
+	private String userInfo;
+	private Host host;
+	private String path;
+	private String query;
+	private String decodedUserInfo;
+	private String decodedPath;
+	private String decodedQuery;
+	private Map<String, List<String>> parameters;
+	// the index of the '/' after each segment, or pathEnd for the last one;
+	// volatile as, unlike a String, an array is not safe to publish racily
+	private volatile int[] segmentEnds;
+	private String string;
+
+	UriImplementation(CharSequence source, int start, int schemeEnd, int userInfoEnd, int hostEnd, int pathStart,
+			int pathEnd, int segmentCount, int queryStart, int end, boolean ipv4, int address, int hostHash, int hash,
+			long schemeHash64, long hostHash64, long pathHash64, long hash64) {
+		this.source = source;
+		this.start = start;
+		this.schemeEnd = schemeEnd;
+		this.userInfoEnd = userInfoEnd;
+		this.hostEnd = hostEnd;
+		this.pathStart = pathStart;
+		this.pathEnd = pathEnd;
+		this.segmentCount = segmentCount;
+		this.queryStart = queryStart;
+		this.end = end;
+		this.ipv4 = ipv4;
+		this.address = address;
+		this.hostHash = hostHash;
+		this.hash = hash;
+		this.schemeHash64 = schemeHash64;
+		this.hostHash64 = hostHash64;
+		this.pathHash64 = pathHash64;
+		this.hash64 = hash64;
+	}
+
+	/**
+	 * Combines the {@link String#hashCode()}s of the components, or the
+	 * {@link uri.Host#hashCode()} for the host, into the hash of a URI. An
+	 * absent component contributes 0.
+	 */
+	static int hash(int scheme, int userInfo, int host, int path, int query) {
+		return 31 * (31 * (31 * (31 * scheme + userInfo) + host) + path) + query;
+	}
+
+	final int authorityStart() {
+		return schemeEnd + 3;
+	}
+
+	final int hostStart() {
+		return userInfoEnd < 0 ? authorityStart() : userInfoEnd + 1;
+	}
 
-	public UriImplementation(String scheme, String query, String userInfo, String host, String path){
-		this.scheme = scheme;
-		this.query = query;
-		this.userInfo = userInfo;
-		this.host = host;
-		this.path = path;
+	final String slice(int from, int to) {
+		if (from == to) {
+			return "";
+		}
+		return source.subSequence(from, to).toString();
 	}
 
 	@Override
 	public String getScheme() {
-		// scheme = ALPHA *( ALPHA / DIGIT )
-		if (scheme == null || !scheme.matches("^[a-zA-Z][a-zA-Z0-9]*$")) {
-			return null;
+		String result = scheme;
+		if (result == null) {
+			result = slice(start, schemeEnd);
+			scheme = result;
 		}
-		return scheme;
+		return result;
 	}
 
 	@Override
 	public String getUserInfo() {
-		if (userInfo == null || userInfo.isEmpty()) return null;
-
-		// userinfo = *( pchar / ":" )
-		// pchar = unreserved / pct-encoded
-		if (!userInfo.matches("^(?:[a-zA-Z0-9.:]|%[0-9a-fA-F]{2})*$")) {
+		// an empty userinfo is reported as absent
+		if (userInfoEnd <= authorityStart()) {
 			return null;
 		}
-		return userInfo;
+		String result = userInfo;
+		if (result == null) {
+			result = slice(authorityStart(), userInfoEnd);
+			userInfo = result;
+		}
+		return result;
 	}
 
-
 	@Override
 	public Host getHost() {
-		if (host == null || host.isEmpty()) return new HostImplementation(null);
-
-		// Check for valid IPv4: dec-octet "." dec-octet "." dec-octet "." dec-octet
-		String ipv4Pattern = "^((0{0,2}\\d|0?\\d\\d|1\\d\\d|2[0-4]\\d|25[0-5])\\.){3}(0{0,2}\\d|0?\\d\\d|1\\d\\d|2[0-4]\\d|25[0-5])$";
-		
-		// reg-name = *pchar
-		String regNamePattern = "^([a-zA-Z0-9.%]|%[0-9a-fA-F]{2})*$";
-
-		if (host.matches(ipv4Pattern)) {
-			return new IPv4AddressImplementation(host);
-		} else if (host.matches(regNamePattern)){
-			return new HostImplementation(host);
-		} else {
-			return new HostImplementation(null);
+		Host result = host;
+		if (result == null) {
+			result = ipv4 ? HostPool.address(address) : HostPool.name(source, hostStart(), hostEnd, hostHash);
+			host = result;
 		}
+		return result;
 	}
 
 	@Override
 	public String getPath() {
-		// path = *( "/" *pchar )
-		// pchar = unreserved / pct-encoded
-		// unreserved = ALPHA / DIGIT / "."
-		// pct-encoded = "%" HEXDIGIT HEXDIGIT
-		if (path == null || path.isEmpty()) return "";
-
-		// Regex: path consists of zero or more segments starting with '/' followed by valid pchars
-		if (!path.matches("^(|(/([a-zA-Z0-9.%]|%[0-9a-fA-F]{2})*)*)$")) {
-			return null;
+		String result = path;
+		if (result == null) {
+			result = slice(pathStart, pathEnd);
+			path = result;
 		}
-		return path;
+		return result;
 	}
 
 	@Override
 	public String getQuery() {
-		// query = *( pchar / "&" / "=" )
-		// pchar = unreserved / pct-encoded
-		// unreserved = ALPHA / DIGIT / "."
-		if (query == null || query.isEmpty()) return null;
+		// an empty query is reported as absent
+		if (queryStart < 0 || queryStart == end) {
+			return null;
+		}
+		String result = query;
+		if (result == null) {
+			result = slice(queryStart, end);
+			query = result;
+		}
+		return result;
+	}
+
+	@Override
+	public String getDecodedUserInfo() {
+		String result = decodedUserInfo;
+		if (result == null) {
+			String raw = getUserInfo();
+			if (raw == null) {
+				return null;
+			}
+			result = PercentDecoding.decode(raw);
+			decodedUserInfo = result;
+		}
+		return result;
+	}
+
+	@Override
+	public String getDecodedPath() {
+		String result = decodedPath;
+		if (result == null) {
+			result = PercentDecoding.decode(getPath());
+			decodedPath = result;
+		}
+		return result;
+	}
+
+	@Override
+	public String getDecodedQuery() {
+		String result = decodedQuery;
+		if (result == null) {
+			String raw = getQuery();
+			if (raw == null) {
+				return null;
+			}
+			result = PercentDecoding.decode(raw);
+			decodedQuery = result;
+		}
+		return result;
+	}
+
+	@Override
+	public int segmentCount() {
+		return segmentCount;
+	}
+
+	@Override
+	public CharSequence segment(int index) {
+		if (index < 0 || index >= segmentCount) {
+			throw new IndexOutOfBoundsException("segment " + index + ", count " + segmentCount);
+		}
+		if (segmentCount == 1) {
+			return new SubSequence().set(source, pathStart, pathEnd);
+		}
+		int[] ends = segmentEnds();
+		return new SubSequence().set(source, index == 0 ? pathStart : ends[index - 1] + 1, ends[index]);
+	}
+
+	// the scan only counts the segments, the ends are found on first use
+	final int[] segmentEnds() {
+		int[] result = segmentEnds;
+		if (result == null) {
+			result = new int[segmentCount];
+			int segment = 0;
+			for (int i = pathStart; i < pathEnd; i++) {
+				if (source.charAt(i) == '/') {
+					result[segment++] = i;
+				}
+			}
+			result[segment] = pathEnd;
+			segmentEnds = result;
+		}
+		return result;
+	}
+
+	@Override
+	public SegmentCursor getSegments() {
+		return new SegmentCursorImplementation(source, pathStart, pathEnd);
+	}
+
+	@Override
+	public QueryCursor getQueryParameters() {
+		return new QueryCursorImplementation(source, queryStart < 0 ? end : queryStart, end);
+	}
 
-		// This pattern matches valid query characters: ALPHA, DIGIT, ".", "&", "=", or valid % encoding
-		if (!query.matches("^([a-zA-Z0-9.]|%[0-9a-fA-F]{2}|[&=])*$")) {
+	@Override
+	public String getParameter(String name) {
+		Map<String, List<String>> map = parameters;
+		if (map != null) {
+			List<String> values = map.get(name);
+			return values == null ? null : values.get(0);
+		}
+		if (queryStart < 0) {
 			return null;
 		}
-		return query;
+		QueryCursor cursor = getQueryParameters();
+		while (cursor.next()) {
+			if (cursor.nameEquals(name)) {
+				return cursor.getValue();
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public Map<String, List<String>> getParameterMap() {
+		Map<String, List<String>> result = parameters;
+		if (result == null) {
+			Map<String, List<String>> map = new LinkedHashMap<>();
+			QueryCursor cursor = getQueryParameters();
+			while (cursor.next()) {
+				map.computeIfAbsent(cursor.getName(), name -> new ArrayList<>(1)).add(cursor.getValue());
+			}
+			for (Map.Entry<String, List<String>> entry : map.entrySet()) {
+				entry.setValue(Collections.unmodifiableList(entry.getValue()));
+			}
+			result = Collections.unmodifiableMap(map);
+			parameters = result;
+		}
+		return result;
 	}
 
+	@Override
+	public void writeTo(Appendable out) throws IOException {
+		out.append(source, start, schemeEnd).append("://");
+		if (userInfoEnd > authorityStart()) {
+			out.append(source, authorityStart(), userInfoEnd).append('@');
+		}
+		if (ipv4) {
+			long dotted = IPv4AddressImplementation.dotted(address);
+			for (int i = 0; i < IPv4AddressImplementation.length(dotted); i++) {
+				out.append(IPv4AddressImplementation.charAt(dotted, i));
+			}
+		} else {
+			out.append(source, hostStart(), hostEnd);
+		}
+		if (pathEnd > pathStart) {
+			out.append('/').append(source, pathStart, pathEnd);
+		}
+		if (queryStart >= 0 && queryStart < end) {
+			out.append('?').append(source, queryStart, end);
+		}
+	}
+
+	@Override
+	public void writeTo(ByteBuffer out) {
+		if (out.remaining() < canonicalLength()) {
+			throw new BufferOverflowException();
+		}
+		put(out, start, schemeEnd);
+		out.put((byte) ':').put((byte) '/').put((byte) '/');
+		if (userInfoEnd > authorityStart()) {
+			put(out, authorityStart(), userInfoEnd);
+			out.put((byte) '@');
+		}
+		if (ipv4) {
+			long dotted = IPv4AddressImplementation.dotted(address);
+			for (int i = 0; i < IPv4AddressImplementation.length(dotted); i++) {
+				out.put((byte) IPv4AddressImplementation.charAt(dotted, i));
+			}
+		} else {
+			put(out, hostStart(), hostEnd);
+		}
+		if (pathEnd > pathStart) {
+			out.put((byte) '/');
+			put(out, pathStart, pathEnd);
+		}
+		if (queryStart >= 0 && queryStart < end) {
+			out.put((byte) '?');
+			put(out, queryStart, end);
+		}
+	}
+
+	// every character of a valid URI is ASCII
+	private void put(ByteBuffer out, int from, int to) {
+		if (out.hasArray()) {
+			// relative puts check bounds and move the position once per byte
+			byte[] array = out.array();
+			int offset = out.arrayOffset() + out.position() - from;
+			for (int i = from; i < to; i++) {
+				array[offset + i] = (byte) source.charAt(i);
+			}
+			out.position(out.position() + to - from);
+		} else {
+			for (int i = from; i < to; i++) {
+				out.put((byte) source.charAt(i));
+			}
+		}
+	}
+
+	@Override
+	public int canonicalLength() {
+		int length = schemeEnd - start + 3;
+		if (userInfoEnd > authorityStart()) {
+			length += userInfoEnd - authorityStart() + 1;
+		}
+		if (ipv4) {
+			length += IPv4AddressImplementation.length(IPv4AddressImplementation.dotted(address));
+		} else {
+			length += hostEnd - hostStart();
+		}
+		if (pathEnd > pathStart) {
+			length += pathEnd - pathStart + 1;
+		}
+		if (queryStart >= 0 && queryStart < end) {
+			length += end - queryStart + 1;
+		}
+		return length;
+	}
+
+	@Override
+	public String toString() {
+		String result = string;
+		if (result == null) {
+			StringBuilder builder = new StringBuilder(canonicalLength());
+			try {
+				writeTo(builder);
+			} catch (IOException e) {
+				// a StringBuilder does not throw
+				throw new AssertionError(e);
+			}
+			result = builder.toString();
+			string = result;
+		}
+		return result;
+	}
+
+	@Override
+	public long hash64(long seed) {
+		return Hash64.finish(hash64, seed);
+	}
 
+	@Override
+	public long originHash64(long seed) {
+		return Hash64.finish(Hash64.combine(schemeHash64, hostHash64), seed);
+	}
+
+	@Override
+	public long hostHash64(long seed) {
+		return Hash64.finish(hostHash64, seed);
+	}
+
+	@Override
+	public long pathHash64(long seed) {
+		return Hash64.finish(pathHash64, seed);
+	}
+
+	@Override
+	public ParsedUri withScheme(String scheme) {
+		UriScanner scanner = StatelessUriParserImplementation.SCANNER.get();
+		if (scheme == null) {
+			throw new IllegalArgumentException("scheme is null");
+		}
+		check("scheme", scheme, scanner, scanner.scanScheme(scheme, 0, 0, scheme.length()),
+				ParseError.INVALID_SCHEME_CHAR);
+		return derive(SCHEME, scheme, scanner);
+	}
+
+	@Override
+	public ParsedUri withUserInfo(String userInfo) {
+		UriScanner scanner = StatelessUriParserImplementation.SCANNER.get();
+		if (userInfo == null || userInfo.isEmpty()) {
+			return derive(USER_INFO, null, scanner);
+		}
+		check("userinfo", userInfo, scanner, scanner.scanUserInfo(userInfo, 0, 0, userInfo.length()),
+				ParseError.INVALID_USERINFO_CHAR);
+		return derive(USER_INFO, userInfo, scanner);
+	}
+
+	@Override
+	public ParsedUri withHost(String host) {
+		UriScanner scanner = StatelessUriParserImplementation.SCANNER.get();
+		if (host == null) {
+			throw new IllegalArgumentException("host is null");
+		}
+		int index = scanner.scanAuthority(host, 0, 0, host.length());
+		if (index < 0 && scanner.error == ParseError.INVALID_USERINFO_CHAR) {
+			// the whole text is meant as the host
+			scanner.error = ParseError.INVALID_HOST_CHAR;
+		}
+		// an '@' would make the text before it a userinfo
+		check("host", host, scanner, index >= 0 && scanner.userInfoEnd >= 0 ? scanner.userInfoEnd : index,
+				ParseError.INVALID_HOST_CHAR);
+		return derive(HOST, host, scanner);
+	}
+
+	@Override
+	public ParsedUri withPath(String path) {
+		UriScanner scanner = StatelessUriParserImplementation.SCANNER.get();
+		if (path == null) {
+			throw new IllegalArgumentException("path is null");
+		}
+		check("path", path, scanner, scanner.scanPath(path, 0, 0, path.length()), ParseError.INVALID_PATH_CHAR);
+		return derive(PATH, path, scanner);
+	}
+
+	@Override
+	public ParsedUri withQuery(String query) {
+		UriScanner scanner = StatelessUriParserImplementation.SCANNER.get();
+		if (query == null || query.isEmpty()) {
+			return derive(QUERY, null, scanner);
+		}
+		check("query", query, scanner, scanner.scanQuery(query, 0, 0, query.length()),
+				ParseError.INVALID_QUERY_CHAR);
+		return derive(QUERY, query, scanner);
+	}
+
+	@Override
+	public ParsedUri withParameter(String name, String value) {
+		if (name == null) {
+			throw new IllegalArgumentException("parameter name is null");
+		}
+		// the rest is checked as part of the query
+		for (int i = 0; i < name.length(); i++) {
+			if (name.charAt(i) == '&' || name.charAt(i) == '=') {
+				throw new IllegalArgumentException(
+						"invalid parameter name \"" + name + "\": '" + name.charAt(i) + "' at " + i);
+			}
+		}
+		if (value != null && value.indexOf('&') >= 0) {
+			throw new IllegalArgumentException(
+					"invalid parameter value \"" + value + "\": '&' at " + value.indexOf('&'));
+		}
+		String parameter = value == null ? name : name + "=" + value;
+		UriScanner scanner = StatelessUriParserImplementation.SCANNER.get();
+		check("parameter", parameter, scanner, scanner.scanQuery(parameter, 0, 0, parameter.length()),
+				ParseError.INVALID_QUERY_CHAR);
+		return derive(PARAMETER, parameter, scanner);
+	}
+
+	/**
+	 * @param index
+	 *            what the component scan of {@code text} returned
+	 * @param error
+	 *            the error for a scan that stopped before the end of
+	 *            {@code text}
+	 */
+	private static void check(String component, String text, UriScanner scanner, int index, ParseError error) {
+		if (index == text.length()) {
+			return;
+		}
+		if (index >= 0) {
+			scanner.error = error;
+			scanner.errorOffset = index;
+		}
+		throw new IllegalArgumentException(
+				"invalid " + component + " \"" + text + "\": " + scanner.error + " at " + scanner.errorOffset);
+	}
+
+	/**
+	 * Creates the URI with {@code text} in place of {@code component}, which
+	 * {@code scanner} has just scanned successfully unless {@code text} is
+	 * {@code null} for an absent one. The other components are copied as
+	 * text, so the result does not keep this source alive, but their
+	 * hashes are not recomputed and their cached values are shared.
+	 */
+	private UriImplementation derive(int component, String text, UriScanner scanner) {
+		StringBuilder out = new StringBuilder(end - start + (text == null ? 0 : text.length()) + 2);
+		append(out, component == SCHEME, text, start, schemeEnd);
+		int schemeEnd = out.length();
+		out.append("://");
+		int userInfoEnd = -1;
+		if (component == USER_INFO ? text != null : this.userInfoEnd > authorityStart()) {
+			append(out, component == USER_INFO, text, authorityStart(), this.userInfoEnd);
+			userInfoEnd = out.length();
+			out.append('@');
+		}
+		append(out, component == HOST, text, hostStart(), hostEnd);
+		int hostEnd = out.length();
+		int pathStart = hostEnd;
+		if (component == PATH ? !text.isEmpty() : this.pathEnd > this.pathStart) {
+			out.append('/');
+			pathStart = out.length();
+			append(out, component == PATH, text, this.pathStart, this.pathEnd);
+		}
+		int pathEnd = out.length();
+		int queryStart = -1;
+		boolean hasQuery = this.queryStart >= 0 && this.queryStart < end;
+		if (component == QUERY ? text != null : hasQuery || component == PARAMETER) {
+			out.append('?');
+			queryStart = out.length();
+			if (component == PARAMETER) {
+				if (hasQuery) {
+					out.append(source, this.queryStart, end).append('&');
+				}
+				out.append(text);
+			} else {
+				append(out, component == QUERY, text, this.queryStart, end);
+			}
+		}
+
+		// replace the share of the old component in the hash by the new one
+		int hash = this.hash;
+		switch (component) {
+		case SCHEME:
+			hash += 31 * 31 * 31 * 31 * (scanner.schemeHash - hash(start, this.schemeEnd));
+			break;
+		case USER_INFO:
+			hash += 31 * 31 * 31 * ((text == null ? 0 : scanner.userInfoHash)
+					- hash(authorityStart(), userInfoEnd()));
+			break;
+		case HOST:
+			hash += 31 * 31 * (scanner.hostHash - hostHash);
+			break;
+		case PATH:
+			hash += 31 * (scanner.pathHash - hash(this.pathStart, this.pathEnd));
+			break;
+		case QUERY:
+			hash += (text == null ? 0 : scanner.queryHash) - hash(queryStart(), end);
+			break;
+		default:
+			// the hash of query "&" parameter continues the one of query
+			if (hasQuery) {
+				int old = hash(this.queryStart, end);
+				int shifted = 31 * old + '&';
+				for (int i = 0; i < text.length(); i++) {
+					shifted *= 31;
+				}
+				hash += shifted + scanner.queryHash - old;
+			} else {
+				hash += scanner.queryHash;
+			}
+			break;
+		}
+
+		// the 64-bit states of the userinfo and query are not kept, so they
+		// are recomputed unless replaced
+		long userInfoHash64 = component != USER_INFO ? Hash64.of(source, authorityStart(), userInfoEnd())
+				: text == null ? 0 : scanner.userInfoHash64;
+		long queryHash64;
+		if (component == QUERY) {
+			queryHash64 = text == null ? 0 : scanner.queryHash64;
+		} else if (component == PARAMETER && hasQuery) {
+			long shifted = Hash64.of(source, this.queryStart, end) * Hash64.MULTIPLIER + '&';
+			for (int i = 0; i < text.length(); i++) {
+				shifted *= Hash64.MULTIPLIER;
+			}
+			queryHash64 = shifted + scanner.queryHash64;
+		} else if (component == PARAMETER) {
+			queryHash64 = scanner.queryHash64;
+		} else {
+			queryHash64 = Hash64.of(source, queryStart(), end);
+		}
+		long schemeHash64 = component == SCHEME ? scanner.schemeHash64 : this.schemeHash64;
+		long hostHash64 = component == HOST ? scanner.hostHash64 : this.hostHash64;
+		long pathHash64 = component == PATH ? scanner.pathHash64 : this.pathHash64;
+
+		boolean host = component == HOST;
+		UriImplementation result = new UriImplementation(out.toString(), 0, schemeEnd, userInfoEnd, hostEnd,
+				pathStart, pathEnd, component == PATH ? scanner.segmentCount : segmentCount, queryStart,
+				out.length(), host ? scanner.ipv4 : ipv4, host ? scanner.address : address,
+				host ? scanner.hostHash : hostHash, hash, schemeHash64, hostHash64, pathHash64,
+				Hash64.combine(schemeHash64, userInfoHash64, hostHash64, pathHash64, queryHash64));
+		result.scheme = component == SCHEME ? text : scheme;
+		if (component == USER_INFO) {
+			result.userInfo = text;
+		} else {
+			result.userInfo = userInfo;
+			result.decodedUserInfo = decodedUserInfo;
+		}
+		if (!host) {
+			result.host = this.host;
+		}
+		if (component == PATH) {
+			result.path = text;
+		} else {
+			result.path = path;
+			result.decodedPath = decodedPath;
+			if (pathStart == this.pathStart) {
+				result.segmentEnds = segmentEnds;
+			}
+		}
+		if (component == QUERY) {
+			result.query = text;
+		} else if (component != PARAMETER) {
+			result.query = query;
+			result.decodedQuery = decodedQuery;
+			result.parameters = parameters;
+		}
+		return result;
+	}
+
+	// appends the new text of a replaced component or the old one
+	private void append(StringBuilder out, boolean replaced, String text, int from, int to) {
+		if (replaced) {
+			out.append(text);
+		} else {
+			out.append(source, from, to);
+		}
+	}
+
+	// String.hashCode() of source[from, to)
+	private int hash(int from, int to) {
+		int hash = 0;
+		for (int i = from; i < to; i++) {
+			hash = 31 * hash + source.charAt(i);
+		}
+		return hash;
+	}
+
+	/**
+	 * Two URIs are equal if all their getters return equal values. In
+	 * particular an empty userinfo or query equals an absent one, and IPv4
+	 * hosts are compared by their octets.
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof UriImplementation)) {
+			return false;
+		}
+		UriImplementation other = (UriImplementation) obj;
+		if (hash != other.hash || ipv4 != other.ipv4) {
+			return false;
+		}
+		if (ipv4 ? address != other.address
+				: !regionEquals(source, hostStart(), hostEnd, other.source, other.hostStart(), other.hostEnd)) {
+			return false;
+		}
+		return regionEquals(source, start, schemeEnd, other.source, other.start, other.schemeEnd)
+				&& regionEquals(source, authorityStart(), userInfoEnd(), other.source, other.authorityStart(),
+						other.userInfoEnd())
+				&& regionEquals(source, pathStart, pathEnd, other.source, other.pathStart, other.pathEnd)
+				&& regionEquals(source, queryStart(), end, other.source, other.queryStart(), other.end);
+	}
+
+	// the end of the userinfo, where an absent one is empty
+	private int userInfoEnd() {
+		return userInfoEnd < 0 ? authorityStart() : userInfoEnd;
+	}
+
+	// the start of the query, where an absent one is empty
+	private int queryStart() {
+		return queryStart < 0 ? end : queryStart;
+	}
+
+	private static boolean regionEquals(CharSequence a, int aStart, int aEnd, CharSequence b, int bStart, int bEnd) {
+		if (aEnd - aStart != bEnd - bStart) {
+			return false;
+		}
+		for (int i = 0; i < aEnd - aStart; i++) {
+			if (a.charAt(aStart + i) != b.charAt(bStart + i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public int hashCode() {
+		return hash;
+	}
+
+	@Override
+	public int compareTo(Uri other) {
+		return compare(this, other);
+	}
+
+	/**
+	 * The order of {@link ParsedUri#compareTo(Uri)}, for any {@link Uri}.
+	 */
+	public static int compare(Uri a, Uri b) {
+		int result = a.getScheme().compareTo(b.getScheme());
+		if (result == 0) {
+			result = compareNullsFirst(a.getUserInfo(), b.getUserInfo());
+		}
+		if (result == 0) {
+			result = HostImplementation.compare(a.getHost(), b.getHost());
+		}
+		if (result == 0) {
+			result = a.getPath().compareTo(b.getPath());
+		}
+		if (result == 0) {
+			result = compareNullsFirst(a.getQuery(), b.getQuery());
+		}
+		return result;
+	}
+
+	private static int compareNullsFirst(String a, String b) {
+		if (a == null || b == null) {
+			return a == null ? (b == null ? 0 : -1) : 1;
+		}
+		return a.compareTo(b);
+	}
 
 }
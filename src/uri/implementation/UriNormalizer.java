@@ -0,0 +1,252 @@
+package uri.implementation;
+
+import uri.NormalizedUri;
+
+/**
+ * Rewrites a URI that {@link UriScanner} has just accepted into the normal
+ * form described in {@link NormalizedUri}.
+ * <p>
+ * The rewrite is one pass over the component boundaries found by the scan,
+ * which writes the normalized text into a reused buffer and computes the
+ * component hashes of the result, both 32 and 64 bit, and its fingerprint
+ * on the way. Nothing needs to be validated again. The pass also notices
+ * whether the text has changed at all; if not, the result refers to the
+ * input like a plain parse and the buffer is not copied. An instance may
+ * only be used by one thread at a time.
+ * <p>
+ * The fingerprint is the 64-bit FNV-1a hash of the normalized text, every
+ * character of which is ASCII, finished with the {@code fmix64} step of
+ * MurmurHash3 so that all of its bits depend on every character.
+ */
+final class UriNormalizer {
+	private static final long FNV_OFFSET_BASIS = 0xCBF29CE484222325L;
+	private static final long FNV_PRIME = 0x100000001B3L;
+
+	private char[] buffer = new char[256];
+	private int length;
+	// false as long as buffer[0, length) equals the input from its start
+	private boolean changed;
+	// String.hashCode() and Hash64 state of the component being written
+	private int hash;
+	private long hash64;
+	private long fingerprint;
+
+	/**
+	 * @param scanner
+	 *            the scanner that has just accepted {@code input}
+	 * @return the normalized URI
+	 */
+	NormalizedUriImplementation normalize(UriScanner scanner, CharSequence input) {
+		// no step makes the text longer
+		if (buffer.length < scanner.end - scanner.start) {
+			buffer = new char[Math.max(scanner.end - scanner.start, 2 * buffer.length)];
+		}
+		length = 0;
+		changed = false;
+		fingerprint = FNV_OFFSET_BASIS;
+
+		hash = 0;
+		hash64 = 0;
+		for (int i = scanner.start; i < scanner.schemeEnd; i++) {
+			char c = input.charAt(i);
+			put(toLowerCase(c), c);
+		}
+		final int schemeEnd = length;
+		final int schemeHash = hash;
+		final long schemeHash64 = hash64;
+		put(':', ':');
+		put('/', '/');
+		put('/', '/');
+
+		int userInfoEnd = -1;
+		int userInfoHash = 0;
+		long userInfoHash64 = 0;
+		if (scanner.userInfoEnd > scanner.authorityStart()) {
+			hash = 0;
+			hash64 = 0;
+			copy(input, scanner.authorityStart(), scanner.userInfoEnd, false);
+			userInfoEnd = length;
+			userInfoHash = hash;
+			userInfoHash64 = hash64;
+			put('@', '@');
+		} else if (scanner.userInfoEnd >= 0) {
+			// an empty userinfo is dropped with its "@"
+			changed = true;
+		}
+
+		final int hostStart = length;
+		boolean ipv4 = scanner.ipv4;
+		int address = scanner.address;
+		int hostHash;
+		long hostHash64;
+		if (ipv4) {
+			putAddress(address);
+			// the same length means there were no leading zeros
+			changed |= length - hostStart != scanner.hostEnd - scanner.hostStart();
+			hostHash = address;
+			hostHash64 = Hash64.address(address);
+		} else {
+			hash = 0;
+			hash64 = 0;
+			boolean decoded = copy(input, scanner.hostStart(), scanner.hostEnd, true);
+			hostHash = hash;
+			hostHash64 = hash64;
+			// decoded digits and dots may have formed an IPv4address
+			long parsed = decoded ? parseAddress(buffer, hostStart, length) : -1;
+			if (parsed >= 0) {
+				ipv4 = true;
+				address = (int) parsed;
+				hostHash = address;
+				hostHash64 = Hash64.address(address);
+				rewind(hostStart);
+				putAddress(address);
+			}
+		}
+		final int hostEnd = length;
+
+		int pathStart = length;
+		hash = 0;
+		hash64 = 0;
+		if (scanner.pathEnd > scanner.pathStart) {
+			put('/', '/');
+			pathStart = length;
+			hash = 0;
+			hash64 = 0;
+			copy(input, scanner.pathStart, scanner.pathEnd, false);
+		} else if (scanner.pathStart > scanner.hostEnd) {
+			// the "/" of an empty path is dropped
+			changed = true;
+		}
+		final int pathEnd = length;
+		final int pathHash = hash;
+		final long pathHash64 = hash64;
+
+		int queryStart = -1;
+		int queryHash = 0;
+		long queryHash64 = 0;
+		if (scanner.queryStart >= 0 && scanner.queryStart < scanner.end) {
+			put('?', '?');
+			queryStart = length;
+			hash = 0;
+			hash64 = 0;
+			copy(input, scanner.queryStart, scanner.end, false);
+			queryHash = hash;
+			queryHash64 = hash64;
+		} else if (scanner.queryStart >= 0) {
+			// an empty query is dropped with its "?"
+			changed = true;
+		}
+
+		long fingerprint = Hash64.mix(this.fingerprint);
+		if (!changed) {
+			return new NormalizedUriImplementation(input, scanner.start, scanner.schemeEnd, scanner.userInfoEnd,
+					scanner.hostEnd, scanner.pathStart, scanner.pathEnd, scanner.segmentCount, scanner.queryStart,
+					scanner.end, ipv4, address, hostHash, scanner.hash, scanner.schemeHash64, scanner.hostHash64,
+					scanner.pathHash64, scanner.hash64, fingerprint);
+		}
+		// decoding never creates a "/", so the segments stay the same
+		return new NormalizedUriImplementation(new String(buffer, 0, length), 0, schemeEnd, userInfoEnd, hostEnd,
+				pathStart, pathEnd, scanner.segmentCount, queryStart, length, ipv4, address, hostHash,
+				UriImplementation.hash(schemeHash, userInfoHash, hostHash, pathHash, queryHash), schemeHash64, hostHash64,
+				pathHash64, Hash64.combine(schemeHash64, userInfoHash64, hostHash64, pathHash64, queryHash64),
+				fingerprint);
+	}
+
+	/**
+	 * Copies a validated component, decoding the triplets of unreserved
+	 * characters and upper-casing the hex digits of the others.
+	 *
+	 * @return {@code true} if a triplet was decoded
+	 */
+	private boolean copy(CharSequence input, int from, int to, boolean lowerCase) {
+		boolean decoded = false;
+		int index = from;
+		while (index < to) {
+			char c = input.charAt(index);
+			if (c == '%') {
+				int value = PercentDecoding.valueAt(input, index);
+				if (value < 128 && CharClasses.is((char) value, CharClasses.UNRESERVED)) {
+					put(lowerCase ? toLowerCase((char) value) : (char) value, c);
+					changed = true;
+					decoded = true;
+				} else {
+					put('%', '%');
+					char high = input.charAt(index + 1);
+					char low = input.charAt(index + 2);
+					put(toUpperCase(high), high);
+					put(toUpperCase(low), low);
+				}
+				index += 3;
+			} else {
+				put(lowerCase ? toLowerCase(c) : c, c);
+				index++;
+			}
+		}
+		return decoded;
+	}
+
+	// appends c, which replaces original in the input
+	private void put(char c, char original) {
+		buffer[length++] = c;
+		changed |= c != original;
+		hash = 31 * hash + c;
+		hash64 = hash64 * Hash64.MULTIPLIER + c;
+		fingerprint = (fingerprint ^ c) * FNV_PRIME;
+	}
+
+	// the length check in normalize() tells whether this changes the text
+	private void putAddress(int address) {
+		long dotted = IPv4AddressImplementation.dotted(address);
+		for (int i = 0; i < IPv4AddressImplementation.length(dotted); i++) {
+			char c = IPv4AddressImplementation.charAt(dotted, i);
+			put(c, c);
+		}
+	}
+
+	// drops everything from index on and restarts the fingerprint at that point
+	private void rewind(int index) {
+		length = index;
+		fingerprint = FNV_OFFSET_BASIS;
+		for (int i = 0; i < index; i++) {
+			fingerprint = (fingerprint ^ buffer[i]) * FNV_PRIME;
+		}
+	}
+
+	/**
+	 * @return the octets of {@code text[from, to)} as an int in the low 32
+	 *         bits, or -1 if it is not an IPv4address
+	 */
+	private static long parseAddress(char[] text, int from, int to) {
+		long address = 0;
+		int octets = 0;
+		int index = from;
+		while (octets < 4) {
+			int octet = 0;
+			int digits = 0;
+			while (index < to && digits < 4 && text[index] >= '0' && text[index] <= '9') {
+				octet = octet * 10 + text[index++] - '0';
+				digits++;
+			}
+			if (digits == 0 || digits > 3 || octet > 255) {
+				return -1;
+			}
+			address = address << 8 | octet;
+			octets++;
+			if (octets < 4) {
+				if (index == to || text[index] != '.') {
+					return -1;
+				}
+				index++;
+			}
+		}
+		return index == to ? address : -1;
+	}
+
+	private static char toLowerCase(char c) {
+		return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+	}
+
+	private static char toUpperCase(char c) {
+		return c >= 'a' && c <= 'z' ? (char) (c - ('a' - 'A')) : c;
+	}
+}
@@ -0,0 +1,317 @@
+package uri.implementation;
+
+import java.util.Map;
+
+import uri.Uri;
+import uri.UriRouter;
+
+/**
+ * The {@link UriRouter}, compiled into a trie of host labels, read from right
+ * to left, whose nodes lead on to tries of path segments.
+ * <p>
+ * Every node stores its children in an open-addressing table keyed by
+ * String, but probed with a region of the host or path, so a lookup creates
+ * no substrings. A URI from this package is matched on its source text with
+ * the segment boundaries it records, so routing it creates neither the host
+ * nor the path String; other {@link Uri} implementations are matched on their
+ * getters. Wildcards are kept beside the table and only tried when the
+ * literal branch has no match, which makes the lookup backtrack only where
+ * wildcard routes exist.
+ */
+public final class UriRouterImplementation<T> implements UriRouter<T> {
+	private static final String ANY = "*";
+	private static final String REST = "**";
+	private static final int[] NO_SEGMENTS = {};
+
+	private final Node root = new Node();
+	private final int size;
+
+	/**
+	 * @throws IllegalArgumentException
+	 *             if a pattern is not valid, is given twice or has a
+	 *             {@code null} value
+	 */
+	public UriRouterImplementation(Map<String, ? extends T> routes) {
+		for (Map.Entry<String, ? extends T> route : routes.entrySet()) {
+			add(route.getKey(), route.getValue());
+		}
+		size = routes.size();
+	}
+
+	private void add(String pattern, Object value) {
+		if (pattern == null || value == null) {
+			throw new IllegalArgumentException("route " + pattern + " needs a pattern and a value");
+		}
+		int slash = pattern.indexOf('/');
+		String host = slash < 0 ? pattern : pattern.substring(0, slash);
+		Node node;
+		if (host.equals(ANY)) {
+			node = root.suffixPaths();
+		} else if (host.startsWith("*.")) {
+			node = hostNode(host.substring(2), pattern).suffixPaths();
+		} else {
+			node = hostNode(host, pattern).paths();
+		}
+		if (slash >= 0 && slash + 1 < pattern.length()) {
+			String[] segments = pattern.substring(slash + 1).split("/", -1);
+			for (int i = 0; i < segments.length; i++) {
+				String segment = segments[i];
+				if (segment.equals(REST)) {
+					if (i != segments.length - 1) {
+						throw new IllegalArgumentException("route " + pattern + " has ** before its last segment");
+					}
+					if (node.rest != null) {
+						throw new IllegalArgumentException("route " + pattern + " is given twice");
+					}
+					node.rest = value;
+					return;
+				}
+				node = segment.equals(ANY) ? node.any() : node.child(segment);
+			}
+		}
+		if (node.value != null) {
+			throw new IllegalArgumentException("route " + pattern + " is given twice");
+		}
+		node.value = value;
+	}
+
+	private Node hostNode(String name, String pattern) {
+		if (name.isEmpty() || name.indexOf('*') >= 0) {
+			throw new IllegalArgumentException("route " + pattern + " has an invalid host");
+		}
+		Node node = root;
+		int end = name.length();
+		while (end >= 0) {
+			int dot = name.lastIndexOf('.', end - 1);
+			node = node.child(name.substring(dot + 1, end));
+			end = dot;
+		}
+		return node;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public T route(Uri uri) {
+		if (uri == null) {
+			return null;
+		}
+		if (uri instanceof UriImplementation) {
+			UriImplementation parsed = (UriImplementation) uri;
+			int[] ends = parsed.segmentCount == 0 ? NO_SEGMENTS : parsed.segmentEnds();
+			if (parsed.ipv4) {
+				// the source may have leading zeros, the routes do not
+				String host = parsed.getHost().toString();
+				return (T) matchHost(root, host, 0, host.length(), parsed.source, parsed.pathStart, ends);
+			}
+			return (T) matchHost(root, parsed.source, parsed.hostStart(), parsed.hostEnd, parsed.source,
+					parsed.pathStart, ends);
+		}
+		String host = uri.getHost().toString();
+		String path = uri.getPath();
+		return (T) matchHost(root, host, 0, host.length(), path, 0, segmentEnds(path));
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @param node
+	 *            the node that matched the labels after {@code end}, or the
+	 *            root
+	 * @param end
+	 *            the end of the labels not matched yet, which is the end of
+	 *            the host at the root and the index of a '.' below it
+	 */
+	private Object matchHost(Node node, CharSequence host, int hostStart, int end, CharSequence path,
+			int pathStart, int[] ends) {
+		Object result = null;
+		int next = end - 1;
+		while (next >= hostStart && host.charAt(next) != '.') {
+			next--;
+		}
+		Node child = node.find(host, next + 1, end);
+		if (child != null) {
+			if (next < hostStart) {
+				if (child.paths != null) {
+					result = matchPath(child.paths, path, pathStart, ends, 0);
+				}
+			} else {
+				result = matchHost(child, host, hostStart, next, path, pathStart, ends);
+			}
+		}
+		// "*." needs at least one more label, "*" at the root matches any host
+		if (result == null && node.suffixPaths != null && (end > hostStart || node == root)) {
+			result = matchPath(node.suffixPaths, path, pathStart, ends, 0);
+		}
+		return result;
+	}
+
+	/**
+	 * @param path
+	 *            the text the path is found in, its first segment starting at
+	 *            {@code pathStart}, every other one after the end of the one
+	 *            before
+	 * @param ends
+	 *            the end of each segment in {@code path}
+	 * @param index
+	 *            the index of the next segment, the segment count once all
+	 *            of them have been matched
+	 */
+	private static Object matchPath(Node node, CharSequence path, int pathStart, int[] ends, int index) {
+		if (index == ends.length) {
+			return node.value != null ? node.value : node.rest;
+		}
+		Node child = node.find(path, index == 0 ? pathStart : ends[index - 1] + 1, ends[index]);
+		if (child != null) {
+			Object result = matchPath(child, path, pathStart, ends, index + 1);
+			if (result != null) {
+				return result;
+			}
+		}
+		if (node.any != null) {
+			Object result = matchPath(node.any, path, pathStart, ends, index + 1);
+			if (result != null) {
+				return result;
+			}
+		}
+		return node.rest;
+	}
+
+	/**
+	 * @return the end of each '/' separated segment of {@code path}, none if
+	 *         it is empty
+	 */
+	private static int[] segmentEnds(String path) {
+		if (path.isEmpty()) {
+			return NO_SEGMENTS;
+		}
+		int count = 1;
+		for (int i = 0; i < path.length(); i++) {
+			if (path.charAt(i) == '/') {
+				count++;
+			}
+		}
+		int[] ends = new int[count];
+		int segment = 0;
+		for (int i = 0; i < path.length(); i++) {
+			if (path.charAt(i) == '/') {
+				ends[segment++] = i;
+			}
+		}
+		ends[segment] = path.length();
+		return ends;
+	}
+
+	/**
+	 * A host label or path segment. Host label nodes lead to the path tries of
+	 * the routes for exactly their name and for "*." with their name, path
+	 * segment nodes hold the values of the routes ending there.
+	 */
+	private static final class Node {
+		private String[] keys = new String[2];
+		private Node[] children = new Node[2];
+		private int count;
+
+		Node any;
+		Object value;
+		Object rest;
+		Node paths;
+		Node suffixPaths;
+
+		Node any() {
+			if (any == null) {
+				any = new Node();
+			}
+			return any;
+		}
+
+		Node paths() {
+			if (paths == null) {
+				paths = new Node();
+			}
+			return paths;
+		}
+
+		Node suffixPaths() {
+			if (suffixPaths == null) {
+				suffixPaths = new Node();
+			}
+			return suffixPaths;
+		}
+
+		/**
+		 * @return the child for {@code key}, added if there is none
+		 */
+		Node child(String key) {
+			Node child = find(key, 0, key.length());
+			if (child == null) {
+				// keep the table at most half full
+				if (2 * (count + 1) > keys.length) {
+					resize();
+				}
+				child = new Node();
+				insert(key, child);
+				count++;
+			}
+			return child;
+		}
+
+		/**
+		 * @return the child whose key equals {@code source[start, end)} or
+		 *         {@code null}
+		 */
+		Node find(CharSequence source, int start, int end) {
+			int hash = 0;
+			for (int i = start; i < end; i++) {
+				hash = 31 * hash + source.charAt(i);
+			}
+			int mask = keys.length - 1;
+			for (int slot = spread(hash) & mask;; slot = (slot + 1) & mask) {
+				String key = keys[slot];
+				if (key == null) {
+					return null;
+				}
+				if (key.length() == end - start && regionEquals(key, source, start)) {
+					return children[slot];
+				}
+			}
+		}
+
+		private static boolean regionEquals(String key, CharSequence source, int start) {
+			for (int i = 0; i < key.length(); i++) {
+				if (key.charAt(i) != source.charAt(start + i)) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		private void insert(String key, Node child) {
+			int mask = keys.length - 1;
+			int slot = spread(key.hashCode()) & mask;
+			while (keys[slot] != null) {
+				slot = (slot + 1) & mask;
+			}
+			keys[slot] = key;
+			children[slot] = child;
+		}
+
+		private void resize() {
+			String[] oldKeys = keys;
+			Node[] oldChildren = children;
+			keys = new String[oldKeys.length * 2];
+			children = new Node[oldKeys.length * 2];
+			for (int i = 0; i < oldKeys.length; i++) {
+				if (oldKeys[i] != null) {
+					insert(oldKeys[i], oldChildren[i]);
+				}
+			}
+		}
+
+		private static int spread(int hash) {
+			return hash ^ (hash >>> 16);
+		}
+	}
+}
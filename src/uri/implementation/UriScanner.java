@@ -0,0 +1,467 @@
+package uri.implementation;
+
+import uri.ParseError;
+
+/**
+ * The single-pass scanner behind every parser in this package.
+ * <p>
+ * The fields hold the component boundaries found by the last successful
+ * {@link #scan}, with the meaning documented in {@link UriImplementation}.
+ * Each component can also be scanned on its own, which only sets the fields
+ * of that component; a failed scan may leave any field changed. An instance
+ * is mutable scratch state: it may be reused for any number of inputs, but
+ * only by one thread at a time.
+ */
+final class UriScanner {
+	int start;
+	int schemeEnd;
+	int userInfoEnd;
+	int hostEnd;
+	int pathStart;
+	int pathEnd;
+	// the number of '/' separated segments of the path, 0 if it is empty
+	int segmentCount;
+	int queryStart;
+	int end;
+	boolean ipv4;
+	int address;
+	// String.hashCode() of each component, 0 if it is absent; the host is
+	// hashed as Host.hashCode() and the URI as Uri.hashCode()
+	int schemeHash;
+	int userInfoHash;
+	int hostHash;
+	int pathHash;
+	int queryHash;
+	int hash;
+	// the Hash64 states of the components and of the whole URI
+	long schemeHash64;
+	long userInfoHash64;
+	long hostHash64;
+	long pathHash64;
+	long queryHash64;
+	long hash64;
+	// why the last scan failed, with the offset relative to its start
+	ParseError error;
+	int errorOffset;
+
+	// skips the plain runs of long paths and queries, null if not available
+	private final ComponentSkipper skipper = ComponentSkipper.create();
+
+	/**
+	 * Scans {@code input[start, end)} in a single forward pass. Every
+	 * character is checked against the character class of the component it
+	 * belongs to, looked up in {@link CharClasses}, and the component
+	 * boundaries are recorded as indices on the way. The hash of each
+	 * component is accumulated in the same pass, with the formula of
+	 * {@link String#hashCode()}, and so is its {@link Hash64} state. Nothing
+	 * is allocated per character.
+	 *
+	 * @return {@code true} if the range is a valid URI, in which case the
+	 *         fields hold its boundaries; otherwise {@link #error} and
+	 *         {@link #errorOffset} tell why
+	 */
+	boolean scan(CharSequence input, int start, int end) {
+		int index = scanScheme(input, start, start, end);
+		if (index < 0) {
+			return false;
+		}
+
+		// scheme ":" "//"
+		if (index == end || input.charAt(index) != ':') {
+			return fail(ParseError.INVALID_SCHEME_CHAR, start, index);
+		}
+		index++;
+		for (int slash = index; slash < index + 2; slash++) {
+			if (slash == end || input.charAt(slash) != '/') {
+				return fail(ParseError.MISSING_SLASHES, start, slash);
+			}
+		}
+		index = scanAuthority(input, start, index + 2, end);
+		if (index < 0) {
+			return false;
+		}
+
+		// path = *( "/" *pchar ), stored without the "/" that ends the authority
+		if (index < end && input.charAt(index) == '/') {
+			index = scanPath(input, start, index + 1, end);
+			if (index < 0) {
+				return false;
+			}
+		} else {
+			pathStart = index;
+			pathEnd = index;
+			segmentCount = 0;
+			pathHash = 0;
+			pathHash64 = 0;
+		}
+
+		queryStart = -1;
+		queryHash = 0;
+		queryHash64 = 0;
+		// only a '?' can be left here, everything else was rejected above
+		if (index < end && scanQuery(input, start, index + 1, end) < 0) {
+			return false;
+		}
+
+		this.start = start;
+		this.end = end;
+		// an empty userinfo or query hashes to 0, the same as an absent one
+		this.hash = UriImplementation.hash(schemeHash, userInfoHash, hostHash, pathHash, queryHash);
+		this.hash64 = Hash64.combine(schemeHash64, userInfoHash64, hostHash64, pathHash64, queryHash64);
+		this.error = null;
+		return true;
+	}
+
+	/**
+	 * Scans the scheme starting at {@code from}, up to the first character
+	 * that cannot be part of it. Offsets of errors are relative to
+	 * {@code start}, as for all component scans.
+	 *
+	 * @return the end of the scheme, or -1 if it is empty
+	 */
+	int scanScheme(CharSequence input, int start, int from, int end) {
+		// scheme = ALPHA *( ALPHA / DIGIT )
+		if (from == end || !CharClasses.is(input.charAt(from), CharClasses.ALPHA)) {
+			return reject(ParseError.INVALID_SCHEME_CHAR, start, from);
+		}
+		int hash = input.charAt(from);
+		long hash64 = hash;
+		int index = from + 1;
+		while (index < end && CharClasses.is(input.charAt(index), CharClasses.ALPHA | CharClasses.DIGIT)) {
+			hash = 31 * hash + input.charAt(index);
+			hash64 = hash64 * Hash64.MULTIPLIER + input.charAt(index);
+			index++;
+		}
+		schemeEnd = index;
+		schemeHash = hash;
+		schemeHash64 = hash64;
+		return index;
+	}
+
+	/**
+	 * Scans the authority starting at {@code from}, up to the "/" or "?" that
+	 * ends it or {@code end}.
+	 *
+	 * @return the end of the authority, or -1 if it is not valid
+	 */
+	int scanAuthority(CharSequence input, int start, int from, int end) {
+		// authority = [ userinfo "@" ] host
+		// userinfo = *( pchar / ":" ), host = *pchar
+		// A ':' is only legal if an '@' follows it, which is not known until
+		// the '@' (or the end of the authority) has been reached.
+		int index = from;
+		int userInfoEnd = -1;
+		int userInfoHash = 0;
+		long userInfoHash64 = 0;
+		// the first ':' since the start of the host, -1 if there is none
+		int colon = -1;
+		int hash = 0;
+		long hash64 = 0;
+
+		// IPv4address = dec-octet "." dec-octet "." dec-octet "." dec-octet
+		// Together the alternatives of dec-octet accept exactly the strings of
+		// one to three digits with a value of at most 255, so the octets are
+		// packed into address while the host is scanned. The state is reset at
+		// the '@' where the host really starts.
+		int address = 0;
+		int octets = 0;
+		int octet = 0;
+		// digits of the current octet, -1 once the host is no IPv4address
+		int digits = 0;
+
+		while (index < end) {
+			char c = input.charAt(index);
+			if (c == '/' || c == '?') {
+				break;
+			}
+			if (c == '@') {
+				if (userInfoEnd >= 0) {
+					return reject(ParseError.DUPLICATE_AT, start, index);
+				}
+				userInfoEnd = index;
+				userInfoHash = hash;
+				userInfoHash64 = hash64;
+				hash = 0;
+				hash64 = 0;
+				colon = -1;
+				address = 0;
+				octets = 0;
+				octet = 0;
+				digits = 0;
+				index++;
+				continue;
+			}
+			int classes = CharClasses.of(c);
+			if ((classes & (CharClasses.PCHAR | CharClasses.USERINFO_EXTRA)) == 0) {
+				return reject(userInfoEnd < 0 && hasAt(input, index + 1, end) ? ParseError.INVALID_USERINFO_CHAR
+						: ParseError.INVALID_HOST_CHAR, start, index);
+			}
+			hash = 31 * hash + c;
+			hash64 = hash64 * Hash64.MULTIPLIER + c;
+			if ((classes & CharClasses.DIGIT) != 0) {
+				if (digits == 3) {
+					digits = -1;
+				} else if (digits >= 0) {
+					octet = octet * 10 + (c - '0');
+					digits++;
+				}
+				index++;
+			} else if (c == '.') {
+				if (digits > 0 && octet <= 255 && octets < 3) {
+					address = address << 8 | octet;
+					octets++;
+					octet = 0;
+					digits = 0;
+				} else {
+					digits = -1;
+				}
+				index++;
+			} else if (c == '%') {
+				if (!isPctEncoded(input, index, end)) {
+					return reject(ParseError.INVALID_PERCENT_ENCODING, start, index);
+				}
+				hash = 31 * (31 * hash + input.charAt(index + 1)) + input.charAt(index + 2);
+				hash64 = (hash64 * Hash64.MULTIPLIER + input.charAt(index + 1)) * Hash64.MULTIPLIER
+						+ input.charAt(index + 2);
+				digits = -1;
+				index += 3;
+			} else {
+				// ALPHA or ':'
+				if (c == ':' && colon < 0) {
+					colon = index;
+				}
+				digits = -1;
+				index++;
+			}
+		}
+		if (colon >= 0) {
+			return reject(ParseError.COLON_IN_HOST, start, colon);
+		}
+		final boolean ipv4 = digits > 0 && octet <= 255 && octets == 3;
+		if (ipv4) {
+			address = address << 8 | octet;
+		}
+		this.userInfoEnd = userInfoEnd;
+		this.userInfoHash = userInfoHash;
+		this.userInfoHash64 = userInfoHash64;
+		this.hostEnd = index;
+		this.ipv4 = ipv4;
+		this.address = address;
+		// an IPv4address is hashed like IPv4AddressImplementation, by value
+		this.hostHash = ipv4 ? address : hash;
+		this.hostHash64 = ipv4 ? Hash64.address(address) : hash64;
+		return index;
+	}
+
+	/**
+	 * @return whether an "@" follows in the authority, so that an invalid
+	 *         character before {@code from} is part of the userinfo
+	 */
+	private static boolean hasAt(CharSequence input, int from, int end) {
+		for (int i = from; i < end; i++) {
+			char c = input.charAt(i);
+			if (c == '@') {
+				return true;
+			}
+			if (c == '/' || c == '?') {
+				return false;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Scans a userinfo on its own, from {@code from} to {@code end}. The full
+	 * scan finds the userinfo as part of the authority instead.
+	 *
+	 * @return {@code end}, or -1 if the range is not a valid userinfo
+	 */
+	int scanUserInfo(CharSequence input, int start, int from, int end) {
+		// userinfo = *( pchar / ":" )
+		int hash = 0;
+		long hash64 = 0;
+		int index = from;
+		while (index < end) {
+			char c = input.charAt(index);
+			if (!CharClasses.is(c, CharClasses.PCHAR | CharClasses.USERINFO_EXTRA)) {
+				return reject(ParseError.INVALID_USERINFO_CHAR, start, index);
+			}
+			hash = 31 * hash + c;
+			hash64 = hash64 * Hash64.MULTIPLIER + c;
+			if (c == '%') {
+				if (!isPctEncoded(input, index, end)) {
+					return reject(ParseError.INVALID_PERCENT_ENCODING, start, index);
+				}
+				hash = 31 * (31 * hash + input.charAt(index + 1)) + input.charAt(index + 2);
+				hash64 = (hash64 * Hash64.MULTIPLIER + input.charAt(index + 1)) * Hash64.MULTIPLIER
+						+ input.charAt(index + 2);
+				index += 3;
+			} else {
+				index++;
+			}
+		}
+		userInfoHash = hash;
+		userInfoHash64 = hash64;
+		return index;
+	}
+
+	/**
+	 * Scans a path starting at {@code from}, after the "/" that ends the
+	 * authority, up to the "?" that ends it or {@code end}.
+	 *
+	 * @return the end of the path, or -1 if it is not valid
+	 */
+	int scanPath(CharSequence input, int start, int from, int end) {
+		int index = from;
+		int hash = 0;
+		long hash64 = 0;
+		int slashes = 0;
+		// plain characters since the last "%", the skipper is only called
+		// again after a run of them
+		int plain = ComponentSkipper.MIN_RUN;
+		while (index < end) {
+			if (skipper != null && plain >= ComponentSkipper.MIN_RUN && end - index >= ComponentSkipper.MIN_LENGTH) {
+				skipper.hash = hash;
+				skipper.hash64 = hash64;
+				skipper.slashes = slashes;
+				index = skipper.skip(input, index, end, ComponentSkipper.PATH);
+				hash = skipper.hash;
+				hash64 = skipper.hash64;
+				slashes = skipper.slashes;
+				if (index == end) {
+					break;
+				}
+			}
+			char c = input.charAt(index);
+			if (c == '?') {
+				break;
+			}
+			int classes = CharClasses.of(c);
+			if ((classes & (CharClasses.PCHAR | CharClasses.PATH_EXTRA)) == 0) {
+				return reject(ParseError.INVALID_PATH_CHAR, start, index);
+			}
+			hash = 31 * hash + c;
+			hash64 = hash64 * Hash64.MULTIPLIER + c;
+			if (c == '%') {
+				if (!isPctEncoded(input, index, end)) {
+					return reject(ParseError.INVALID_PERCENT_ENCODING, start, index);
+				}
+				hash = 31 * (31 * hash + input.charAt(index + 1)) + input.charAt(index + 2);
+				hash64 = (hash64 * Hash64.MULTIPLIER + input.charAt(index + 1)) * Hash64.MULTIPLIER
+						+ input.charAt(index + 2);
+				index += 3;
+				plain = 0;
+			} else {
+				plain++;
+				if (c == '/') {
+					slashes++;
+				}
+				index++;
+			}
+		}
+		pathStart = from;
+		pathEnd = index;
+		segmentCount = index > from ? slashes + 1 : 0;
+		pathHash = hash;
+		pathHash64 = hash64;
+		return index;
+	}
+
+	/**
+	 * Scans a query starting at {@code from}, after its "?", to {@code end}.
+	 *
+	 * @return {@code end}, or -1 if the range is not a valid query
+	 */
+	int scanQuery(CharSequence input, int start, int from, int end) {
+		// query = *( pchar / "&" / "=" )
+		int index = from;
+		int hash = 0;
+		long hash64 = 0;
+		// plain characters since the last "%", the skipper is only called
+		// again after a run of them
+		int plain = ComponentSkipper.MIN_RUN;
+		while (index < end) {
+			if (skipper != null && plain >= ComponentSkipper.MIN_RUN && end - index >= ComponentSkipper.MIN_LENGTH) {
+				skipper.hash = hash;
+				skipper.hash64 = hash64;
+				index = skipper.skip(input, index, end, ComponentSkipper.QUERY);
+				hash = skipper.hash;
+				hash64 = skipper.hash64;
+				if (index == end) {
+					break;
+				}
+			}
+			char c = input.charAt(index);
+			if (!CharClasses.is(c, CharClasses.PCHAR | CharClasses.QUERY_EXTRA)) {
+				return reject(ParseError.INVALID_QUERY_CHAR, start, index);
+			}
+			hash = 31 * hash + c;
+			hash64 = hash64 * Hash64.MULTIPLIER + c;
+			if (c == '%') {
+				if (!isPctEncoded(input, index, end)) {
+					return reject(ParseError.INVALID_PERCENT_ENCODING, start, index);
+				}
+				hash = 31 * (31 * hash + input.charAt(index + 1)) + input.charAt(index + 2);
+				hash64 = (hash64 * Hash64.MULTIPLIER + input.charAt(index + 1)) * Hash64.MULTIPLIER
+						+ input.charAt(index + 2);
+				index += 3;
+				plain = 0;
+			} else {
+				plain++;
+				index++;
+			}
+		}
+		queryStart = from;
+		queryHash = hash;
+		queryHash64 = hash64;
+		return index;
+	}
+
+	private boolean fail(ParseError error, int start, int index) {
+		reject(error, start, index);
+		return false;
+	}
+
+	// records the error of a component scan, which then returns -1
+	private int reject(ParseError error, int start, int index) {
+		this.error = error;
+		this.errorOffset = index - start;
+		return -1;
+	}
+
+	final int authorityStart() {
+		return schemeEnd + 3;
+	}
+
+	final int hostStart() {
+		return userInfoEnd < 0 ? authorityStart() : userInfoEnd + 1;
+	}
+
+	/**
+	 * @return a {@link UriImplementation} over {@code input} with the
+	 *         boundaries of the last successful {@link #scan}
+	 */
+	UriImplementation toUri(CharSequence input) {
+		return new UriImplementation(input, start, schemeEnd, userInfoEnd, hostEnd, pathStart, pathEnd, segmentCount,
+				queryStart, end, ipv4, address, hostHash, hash, schemeHash64, hostHash64, pathHash64, hash64);
+	}
+
+	/**
+	 * @param copy
+	 *            a copy of the range given to the last successful
+	 *            {@link #scan}, starting at index 0
+	 * @return a {@link UriImplementation} over {@code copy}
+	 */
+	UriImplementation toCopiedUri(CharSequence copy) {
+		return new UriImplementation(copy, 0, schemeEnd - start, userInfoEnd < 0 ? -1 : userInfoEnd - start,
+				hostEnd - start, pathStart - start, pathEnd - start, segmentCount,
+				queryStart < 0 ? -1 : queryStart - start, end - start, ipv4, address, hostHash, hash, schemeHash64,
+				hostHash64, pathHash64, hash64);
+	}
+
+	// pct-encoded = "%" HEXDIGIT HEXDIGIT, with input.charAt(index) == '%'
+	static boolean isPctEncoded(CharSequence input, int index, int end) {
+		return index + 2 < end && CharClasses.is(input.charAt(index + 1), CharClasses.HEXDIG)
+				&& CharClasses.is(input.charAt(index + 2), CharClasses.HEXDIG);
+	}
+}